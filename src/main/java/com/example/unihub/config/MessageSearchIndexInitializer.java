@@ -0,0 +1,52 @@
+package com.example.unihub.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the full-text search column and GIN index on messages.
+ * The column is generated by PostgreSQL, so sends, edits and deletes keep it current
+ * without any application code; it is intentionally not mapped on the Message entity.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MessageSearchIndexInitializer implements CommandLineRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        try {
+            if (!tableExists("messages")) {
+                log.info("Skipping message search index: messages table does not exist yet");
+                return;
+            }
+
+            jdbcTemplate.execute(
+                "ALTER TABLE messages ADD COLUMN IF NOT EXISTS content_tsv tsvector " +
+                "GENERATED ALWAYS AS (to_tsvector('simple', coalesce(content, ''))) STORED"
+            );
+            jdbcTemplate.execute(
+                "CREATE INDEX IF NOT EXISTS idx_messages_content_tsv ON messages USING GIN (content_tsv)"
+            );
+            log.info("Message full-text search index is ready");
+        } catch (Exception ex) {
+            // Every search depends on content_tsv, so refuse to start without it
+            log.error("Could not create the message search index", ex);
+            throw new IllegalStateException("Message search index could not be created", ex);
+        }
+    }
+
+    private boolean tableExists(String tableName) {
+        Integer count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM information_schema.tables WHERE table_name = ?",
+            Integer.class,
+            tableName
+        );
+        return count != null && count > 0;
+    }
+}
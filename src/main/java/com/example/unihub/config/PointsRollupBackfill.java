@@ -0,0 +1,57 @@
+package com.example.unihub.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Seeds points_daily_rollups from points_log for entries written before rollups existed.
+ * It only runs while points_log reaches further back than the rollups, and only inserts
+ * (user, day, source type) keys without a rollup row, so later startups skip the points_log scan.
+ * Like the unread count backfill it runs before the context finishes refreshing, that is before
+ * scheduled tasks such as the gamification outbox consumer and the web server start. No points
+ * are rolled up live on the first deploy until it is done, so a key that already has a row has
+ * no entries left to add.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PointsRollupBackfill implements SmartInitializingSingleton {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        run();
+    }
+
+    public void run() {
+        try {
+            Boolean behind = jdbcTemplate.queryForObject(
+                "SELECT CASE WHEN (SELECT MIN(created_at) FROM points_log) IS NOT NULL AND (" +
+                "(SELECT MIN(rollup_day) FROM points_daily_rollups) IS NULL OR " +
+                "CAST((SELECT MIN(created_at) FROM points_log) AS DATE) < " +
+                "(SELECT MIN(rollup_day) FROM points_daily_rollups)) THEN TRUE ELSE FALSE END",
+                Boolean.class);
+            if (!Boolean.TRUE.equals(behind)) {
+                return;
+            }
+            int inserted = jdbcTemplate.update(
+                "INSERT INTO points_daily_rollups (user_id, rollup_day, source_type, points, entry_count) " +
+                "SELECT p.user_id, CAST(p.created_at AS DATE), p.source_type, SUM(p.points), COUNT(*) " +
+                "FROM points_log p " +
+                "WHERE NOT EXISTS (SELECT 1 FROM points_daily_rollups r " +
+                "WHERE r.user_id = p.user_id AND r.rollup_day = CAST(p.created_at AS DATE) " +
+                "AND r.source_type = p.source_type) " +
+                "GROUP BY p.user_id, CAST(p.created_at AS DATE), p.source_type"
+            );
+            if (inserted > 0) {
+                log.info("Backfilled {} daily points rollups", inserted);
+            }
+        } catch (Exception ex) {
+            log.warn("Skipping points rollup backfill: {}", ex.getMessage());
+        }
+    }
+}
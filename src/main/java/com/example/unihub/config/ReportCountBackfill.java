@@ -0,0 +1,40 @@
+package com.example.unihub.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Seeds events.report_count and blogs.report_count for rows created before the columns existed.
+ * Only rows with a NULL counter are touched, so this is a no-op after the first run.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReportCountBackfill implements CommandLineRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        try {
+            int events = jdbcTemplate.update(
+                "UPDATE events e SET report_count = (" +
+                "SELECT COUNT(*) FROM event_reports r WHERE r.event_id = e.event_id) " +
+                "WHERE e.report_count IS NULL"
+            );
+            int blogs = jdbcTemplate.update(
+                "UPDATE blogs b SET report_count = (" +
+                "SELECT COUNT(*) FROM blog_reports r WHERE r.blog_id = b.blog_id) " +
+                "WHERE b.report_count IS NULL"
+            );
+            if (events > 0 || blogs > 0) {
+                log.info("Backfilled report_count for {} events and {} blogs", events, blogs);
+            }
+        } catch (Exception ex) {
+            log.warn("Skipping report_count backfill: {}", ex.getMessage());
+        }
+    }
+}
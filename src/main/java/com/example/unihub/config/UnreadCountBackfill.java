@@ -0,0 +1,44 @@
+package com.example.unihub.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Seeds conversation_participants.unread_count for rows created before the column existed.
+ * Only rows with a NULL counter are touched, so this is a no-op after the first run.
+ * It runs before the context finishes refreshing, that is before the web server accepts
+ * messages or reads, so no live increment or reset can land between the count and the write.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UnreadCountBackfill implements SmartInitializingSingleton {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        run();
+    }
+
+    public void run() {
+        try {
+            int updated = jdbcTemplate.update(
+                "UPDATE conversation_participants cp SET unread_count = (" +
+                "SELECT COUNT(*) FROM messages m " +
+                "WHERE m.conversation_id = cp.conversation_id AND m.sender_id <> cp.user_id " +
+                "AND (m.is_deleted = false OR m.is_deleted IS NULL) " +
+                "AND m.created_at > COALESCE(cp.last_read_at, cp.joined_at)) " +
+                "WHERE cp.unread_count IS NULL"
+            );
+            if (updated > 0) {
+                log.info("Backfilled unread_count for {} conversation participants", updated);
+            }
+        } catch (Exception ex) {
+            log.warn("Skipping unread_count backfill: {}", ex.getMessage());
+        }
+    }
+}
@@ -1,19 +1,96 @@
 package com.example.unihub.config;
 
+import com.example.unihub.security.StompAuthChannelInterceptor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
+@Slf4j
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+
+    // "simple" keeps subscriptions in this JVM; "relay" forwards to an external STOMP broker
+    // (RabbitMQ, ActiveMQ, ...) so several instances can share subscriptions behind a load balancer
+    @Value("${app.websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${app.websocket.broker.relay-host:localhost}")
+    private String relayHost;
+
+    @Value("${app.websocket.broker.relay-port:61613}")
+    private int relayPort;
+
+    @Value("${app.websocket.broker.client-login:guest}")
+    private String clientLogin;
+
+    @Value("${app.websocket.broker.client-passcode:guest}")
+    private String clientPasscode;
+
+    @Value("${app.websocket.broker.system-login:guest}")
+    private String systemLogin;
+
+    @Value("${app.websocket.broker.system-passcode:guest}")
+    private String systemPasscode;
+
+    @Value("${app.websocket.broker.virtual-host:}")
+    private String virtualHost;
+
+    @Value("${app.websocket.channel.inbound.core-pool-size:8}")
+    private int inboundCorePoolSize;
+
+    @Value("${app.websocket.channel.inbound.max-pool-size:32}")
+    private int inboundMaxPoolSize;
+
+    @Value("${app.websocket.channel.inbound.queue-capacity:1000}")
+    private int inboundQueueCapacity;
+
+    @Value("${app.websocket.channel.outbound.core-pool-size:8}")
+    private int outboundCorePoolSize;
+
+    @Value("${app.websocket.channel.outbound.max-pool-size:32}")
+    private int outboundMaxPoolSize;
+
+    @Value("${app.websocket.channel.outbound.queue-capacity:5000}")
+    private int outboundQueueCapacity;
+
+    @Value("${app.websocket.transport.send-time-limit-ms:15000}")
+    private int sendTimeLimit;
+
+    @Value("${app.websocket.transport.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${app.websocket.transport.message-size-limit:65536}")
+    private int messageSizeLimit;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // Enable a simple in-memory message broker
-        config.enableSimpleBroker("/topic", "/queue");
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            log.info("Relaying STOMP destinations to external broker at {}:{}", relayHost, relayPort);
+            var relay = config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(clientLogin)
+                    .setClientPasscode(clientPasscode)
+                    .setSystemLogin(systemLogin)
+                    .setSystemPasscode(systemPasscode);
+            if (!virtualHost.isBlank()) {
+                relay.setVirtualHost(virtualHost);
+            }
+        } else {
+            // Enable a simple in-memory message broker
+            config.enableSimpleBroker("/topic", "/queue");
+        }
         // Prefix for messages from client to server
         config.setApplicationDestinationPrefixes("/app");
     }
@@ -25,4 +102,29 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOriginPatterns("*")
                 .withSockJS();
     }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthChannelInterceptor);
+        registration.taskExecutor()
+                .corePoolSize(inboundCorePoolSize)
+                .maxPoolSize(inboundMaxPoolSize)
+                .queueCapacity(inboundQueueCapacity);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(outboundCorePoolSize)
+                .maxPoolSize(outboundMaxPoolSize)
+                .queueCapacity(outboundQueueCapacity);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // A slow client is disconnected once it falls this far behind, instead of buffering without bound
+        registration.setSendTimeLimit(sendTimeLimit)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setMessageSizeLimit(messageSizeLimit);
+    }
 }
@@ -1,5 +1,6 @@
 package com.example.unihub.controller;
 
+import com.example.unihub.dto.response.PointsSeriesPointResponse;
 import com.example.unihub.enums.BlogStatus;
 import com.example.unihub.enums.EventStatus;
 import com.example.unihub.enums.UserRole;
@@ -8,6 +9,10 @@ import com.example.unihub.model.User;
 import com.example.unihub.repository.BlogRepository;
 import com.example.unihub.repository.EventRepository;
 import com.example.unihub.repository.UserRepository;
+import com.example.unihub.service.GamificationOutboxService;
+import com.example.unihub.service.LeaderboardIndex;
+import com.example.unihub.service.NotificationFanoutService;
+import com.example.unihub.service.PointsHistoryService;
 import com.example.unihub.service.UniversityService;
 import com.example.unihub.service.UserService;
 import lombok.RequiredArgsConstructor;
@@ -29,6 +34,10 @@ public class AdminController {
     private final UserRepository userRepository;
     private final EventRepository eventRepository;
     private final BlogRepository blogRepository;
+    private final LeaderboardIndex leaderboardIndex;
+    private final GamificationOutboxService gamificationOutboxService;
+    private final NotificationFanoutService notificationFanoutService;
+    private final PointsHistoryService pointsHistoryService;
 
     /**
      * Get all users
@@ -110,6 +119,10 @@ public class AdminController {
         }
         
         User updatedUser = userRepository.save(user);
+        if (updates.containsKey("points")) {
+            userRepository.overwritePoints(id, updatedUser.getPoints());
+        }
+        leaderboardIndex.update(updatedUser);
         return ResponseEntity.ok(updatedUser);
     }
 
@@ -203,7 +216,25 @@ public class AdminController {
         usersByRole.put("supervisors", userRepository.countByRole(UserRole.SUPERVISOR));
         usersByRole.put("admins", userRepository.countByRole(UserRole.ADMIN));
         analytics.put("usersByRole", usersByRole);
+
+        // Points changes waiting for the gamification outbox consumer
+        analytics.put("gamificationOutbox", gamificationOutboxService.getMetrics());
+
+        // Bulk notifications (e.g. event cancellations) still being delivered
+        analytics.put("notificationFanout", notificationFanoutService.getMetrics());
+
+        // Points awarded per source type, read from the daily rollups
+        analytics.put("pointsBySourceType", pointsHistoryService.getSourceTypeTotals());
         
         return ResponseEntity.ok(analytics);
     }
+
+    /**
+     * Site-wide points per day, read from the daily rollups
+     * GET /api/admin/analytics/points-series?days=30
+     */
+    @GetMapping("/analytics/points-series")
+    public ResponseEntity<List<PointsSeriesPointResponse>> getPointsSeries(@RequestParam(defaultValue = "30") int days) {
+        return ResponseEntity.ok(pointsHistoryService.getSeries(null, days));
+    }
 }
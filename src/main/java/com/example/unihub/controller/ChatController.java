@@ -2,14 +2,18 @@ package com.example.unihub.controller;
 
 import com.example.unihub.dto.*;
 import com.example.unihub.service.ChatService;
+import com.example.unihub.service.PresenceService;
 import com.example.unihub.service.UserService;
 import com.example.unihub.util.AuthenticationUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -17,8 +21,11 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ChatController {
 
+    private static final int MAX_PRESENCE_IDS = 200;
+
     private final ChatService chatService;
     private final UserService userService;
+    private final PresenceService presenceService;
 
     @PostMapping("/conversations")
     public ResponseEntity<ConversationResponse> createConversation(
@@ -30,10 +37,14 @@ public class ChatController {
     }
 
     @GetMapping("/conversations")
-    public ResponseEntity<List<ConversationResponse>> getConversations(Authentication authentication) {
+    public ResponseEntity<List<ConversationResponse>> getConversations(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(required = false) Integer limit,
+            Authentication authentication) {
         String email = AuthenticationUtil.getEmailFromAuthentication(authentication);
         Long userId = userService.getUserByEmail(email).getUserId();
-        return ResponseEntity.ok(chatService.getUserConversations(userId));
+        return ResponseEntity.ok(chatService.getUserConversations(userId, before, beforeId, limit));
     }
 
     @GetMapping("/conversations/{conversationId}/messages")
@@ -47,6 +58,21 @@ public class ChatController {
         return ResponseEntity.ok(chatService.getMessages(conversationId, userId, page, size));
     }
 
+    /**
+     * Cursor-based history, newest first.
+     * GET /api/chat/conversations/{id}/messages/history?before={messageId}&limit=50
+     */
+    @GetMapping("/conversations/{conversationId}/messages/history")
+    public ResponseEntity<Slice<MessageResponse>> getMessageHistory(
+            @PathVariable Long conversationId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "50") int limit,
+            Authentication authentication) {
+        String email = AuthenticationUtil.getEmailFromAuthentication(authentication);
+        Long userId = userService.getUserByEmail(email).getUserId();
+        return ResponseEntity.ok(chatService.getMessageHistory(conversationId, userId, before, limit));
+    }
+
     @PostMapping("/conversations/{conversationId}/read")
     public ResponseEntity<Void> markAsRead(
             @PathVariable Long conversationId,
@@ -88,6 +114,11 @@ public class ChatController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Search one conversation; every word of the query matches as a word prefix
+     * GET /api/chat/conversations/12/search?query=hel
+     * Returns at most 50 messages, best matches first; use /search to page through more.
+     */
     @GetMapping("/conversations/{conversationId}/search")
     public ResponseEntity<List<MessageResponse>> searchMessages(
             @PathVariable Long conversationId,
@@ -98,6 +129,36 @@ public class ChatController {
         return ResponseEntity.ok(chatService.searchMessages(conversationId, query, userId));
     }
 
+    /**
+     * Ranked full-text search with highlighted snippets
+     * GET /api/chat/search?query=exam&conversationId=12&page=0&size=20
+     * Omit conversationId to search all of the user's conversations.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<Slice<MessageSearchResult>> search(
+            @RequestParam String query,
+            @RequestParam(required = false) Long conversationId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        String email = AuthenticationUtil.getEmailFromAuthentication(authentication);
+        Long userId = userService.getUserByEmail(email).getUserId();
+        return ResponseEntity.ok(chatService.search(userId, conversationId, query, page, size));
+    }
+
+    /**
+     * Online state and last-seen time for a set of users
+     * GET /api/chat/presence?userIds=1,2,3
+     */
+    @GetMapping("/presence")
+    public ResponseEntity<List<UserPresenceResponse>> getPresence(
+            @RequestParam List<Long> userIds) {
+        if (userIds.size() > MAX_PRESENCE_IDS) {
+            throw new RuntimeException("At most " + MAX_PRESENCE_IDS + " users per presence request");
+        }
+        return ResponseEntity.ok(presenceService.getPresence(userIds));
+    }
+
     @DeleteMapping("/conversations/{conversationId}")
     public ResponseEntity<Void> deleteConversation(
             @PathVariable Long conversationId,
@@ -1,6 +1,10 @@
 package com.example.unihub.controller;
 
 import com.example.unihub.repository.*;
+import com.example.unihub.service.ChatMembershipCache;
+import com.example.unihub.service.PresenceService;
+import com.example.unihub.service.ReadStateBuffer;
+import com.example.unihub.service.WebSocketEventPublisher;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -20,6 +24,10 @@ public class ChatHealthController {
     private final MessageRepository messageRepository;
     private final MessageReactionRepository reactionRepository;
     private final MessageReadReceiptRepository readReceiptRepository;
+    private final WebSocketEventPublisher eventPublisher;
+    private final PresenceService presenceService;
+    private final ChatMembershipCache membershipCache;
+    private final ReadStateBuffer readStateBuffer;
 
     @GetMapping
     public ResponseEntity<Map<String, Object>> checkHealth() {
@@ -34,6 +42,10 @@ public class ChatHealthController {
             health.put("read_receipts_count", readReceiptRepository.count());
             health.put("database", "Connected");
             health.put("tables", "Created");
+            health.put("outbound_events", eventPublisher.getMetrics());
+            health.put("presence", presenceService.getMetrics());
+            health.put("membership_cache", membershipCache.getMetrics());
+            health.put("read_state_buffer", readStateBuffer.getMetrics());
             
             return ResponseEntity.ok(health);
         } catch (Exception e) {
@@ -2,20 +2,26 @@ package com.example.unihub.controller;
 import com.example.unihub.util.AuthenticationUtil;
 
 import com.example.unihub.dto.request.CreateEventRequest;
+import com.example.unihub.dto.request.EventFeedFilter;
 import com.example.unihub.dto.request.JoinEventRequest;
+import com.example.unihub.dto.response.EventFeedResponse;
+import com.example.unihub.dto.response.WaitlistStatusResponse;
 import com.example.unihub.enums.EventStatus;
 import com.example.unihub.model.Event;
 import com.example.unihub.model.EventParticipant;
 import com.example.unihub.model.User;
 import com.example.unihub.service.EventService;
+import com.example.unihub.service.EventWaitlistService;
 import com.example.unihub.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -25,6 +31,7 @@ import java.util.Map;
 public class EventController {
 
     private final EventService eventService;
+    private final EventWaitlistService eventWaitlistService;
     private final UserService userService;
 
     /**
@@ -39,6 +46,24 @@ public class EventController {
         return ResponseEntity.ok(events);
     }
 
+    /**
+     * Paginated event feed with slim entries, newest first; pass nextCursor back as cursor for the next page
+     * GET /api/events/feed?universityId=1&status=APPROVED&type=WORKSHOP&from=2025-01-01T00:00:00&to=2025-02-01T00:00:00&upcoming=true&size=20
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<EventFeedResponse> getEventFeed(
+            @RequestParam(required = false) Long universityId,
+            @RequestParam(required = false) EventStatus status,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "false") boolean upcoming,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        EventFeedFilter filter = new EventFeedFilter(universityId, status, type, from, to, upcoming);
+        return ResponseEntity.ok(eventService.getEventFeed(filter, cursor, size));
+    }
+
     /**
      * Get event by ID
      * GET /api/events/{id}
@@ -93,6 +118,47 @@ public class EventController {
         return ResponseEntity.ok("Successfully joined event");
     }
 
+    /**
+     * Queue for a full role of an event, or join right away if a slot is free
+     * POST /api/events/{id}/waitlist
+     */
+    @PostMapping("/{id}/waitlist")
+    public ResponseEntity<WaitlistStatusResponse> joinWaitlist(
+            @PathVariable Long id,
+            @Valid @RequestBody JoinEventRequest request,
+            Authentication authentication) {
+        String email = AuthenticationUtil.getEmailFromAuthentication(authentication);
+        User user = userService.getUserByEmail(email);
+        return ResponseEntity.ok(eventWaitlistService.joinWaitlist(id, user.getUserId(), request.getRole()));
+    }
+
+    /**
+     * Current place in an event's waitlist
+     * GET /api/events/{id}/waitlist
+     */
+    @GetMapping("/{id}/waitlist")
+    public ResponseEntity<WaitlistStatusResponse> getWaitlistStatus(
+            @PathVariable Long id,
+            Authentication authentication) {
+        String email = AuthenticationUtil.getEmailFromAuthentication(authentication);
+        User user = userService.getUserByEmail(email);
+        return ResponseEntity.ok(eventWaitlistService.getStatus(id, user.getUserId()));
+    }
+
+    /**
+     * Leave an event's waitlist
+     * DELETE /api/events/{id}/waitlist
+     */
+    @DeleteMapping("/{id}/waitlist")
+    public ResponseEntity<String> leaveWaitlist(
+            @PathVariable Long id,
+            Authentication authentication) {
+        String email = AuthenticationUtil.getEmailFromAuthentication(authentication);
+        User user = userService.getUserByEmail(email);
+        eventWaitlistService.leaveWaitlist(id, user.getUserId());
+        return ResponseEntity.ok("Left the waitlist");
+    }
+
     /**
      * Leave an event (with penalty)
      * POST /api/events/{id}/leave
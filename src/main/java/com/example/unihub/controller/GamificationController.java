@@ -1,18 +1,29 @@
 package com.example.unihub.controller;
 import com.example.unihub.util.AuthenticationUtil;
 
+import com.example.unihub.dto.response.LeaderboardEntryResponse;
+import com.example.unihub.dto.response.PointsDailyRollupResponse;
+import com.example.unihub.dto.response.PointsHistoryEntryResponse;
+import com.example.unihub.dto.response.PointsSeriesPointResponse;
+import com.example.unihub.enums.LeaderboardWindow;
 import com.example.unihub.model.Badge;
 import com.example.unihub.model.Event;
 import com.example.unihub.model.User;
 import com.example.unihub.model.UserBadge;
-import com.example.unihub.repository.BadgeRepository;
+import com.example.unihub.service.BadgeCatalog;
 import com.example.unihub.service.LeaderboardService;
+import com.example.unihub.service.PointsHistoryService;
 import com.example.unihub.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,7 +35,8 @@ public class GamificationController {
 
     private final LeaderboardService leaderboardService;
     private final UserService userService;
-    private final BadgeRepository badgeRepository;
+    private final BadgeCatalog badgeCatalog;
+    private final PointsHistoryService pointsHistoryService;
 
     /**
      * Get leaderboard
@@ -53,6 +65,30 @@ public class GamificationController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Paginated members leaderboard with slim entries; answers 304 when If-None-Match still matches.
+     * window is ALL_TIME, WEEK (last 7 days) or MONTH (last 30 days)
+     * GET /api/gamification/leaderboard/members?scope=UNIVERSITY&universityId=1&window=WEEK&page=0&size=20
+     */
+    @GetMapping("/leaderboard/members")
+    public ResponseEntity<Slice<LeaderboardEntryResponse>> getMembersLeaderboardPage(
+            @RequestParam(defaultValue = "GLOBAL") String scope,
+            @RequestParam(required = false) Long universityId,
+            @RequestParam(defaultValue = "ALL_TIME") String window,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest webRequest) {
+        LeaderboardWindow leaderboardWindow = LeaderboardWindow.valueOf(window.toUpperCase());
+        String etag = leaderboardService.getMembersPageEtag(scope, universityId, leaderboardWindow, page, size);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(leaderboardService.getMembersPage(scope, universityId, leaderboardWindow, page, size));
+    }
+
     /**
      * Get top members (for dashboard snippets)
      * GET /api/gamification/top-members?scope=GLOBAL&limit=3
@@ -102,6 +138,24 @@ public class GamificationController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get the members ranked around me
+     * GET /api/gamification/around-me?scope=GLOBAL&radius=5
+     */
+    @GetMapping("/around-me")
+    public ResponseEntity<List<LeaderboardEntryResponse>> getAroundMe(
+            @RequestParam(defaultValue = "GLOBAL") String scope,
+            @RequestParam(defaultValue = "5") int radius,
+            Authentication authentication) {
+        String email = AuthenticationUtil.getEmailFromAuthentication(authentication);
+        User user = userService.getUserByEmail(email);
+
+        Long universityId = "UNIVERSITY".equalsIgnoreCase(scope) && user.getUniversity() != null
+            ? user.getUniversity().getUniversityId() : null;
+        return ResponseEntity.ok(leaderboardService.getUsersAroundMe(user.getUserId(), scope, universityId,
+                Math.min(Math.max(radius, 0), 50)));
+    }
+
     /**
      * Get user rank by ID
      * GET /api/gamification/rank/{userId}?scope=GLOBAL
@@ -129,7 +183,7 @@ public class GamificationController {
      */
     @GetMapping("/badges")
     public ResponseEntity<List<Badge>> getAllBadges() {
-        List<Badge> badges = badgeRepository.findAllByOrderByPointsThresholdAsc();
+        List<Badge> badges = badgeCatalog.all();
         return ResponseEntity.ok(badges);
     }
 
@@ -142,7 +196,7 @@ public class GamificationController {
         String email = AuthenticationUtil.getEmailFromAuthentication(authentication);
         User user = userService.getUserByEmail(email);
         
-        List<Badge> allBadges = badgeRepository.findAllByOrderByPointsThresholdAsc();
+        List<Badge> allBadges = badgeCatalog.all();
         List<UserBadge> earnedBadges = userService.getUserBadges(user.getUserId());
         
         Map<String, Object> response = new HashMap<>();
@@ -153,4 +207,47 @@ public class GamificationController {
         
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * My points history, newest first, optionally for one source type
+     * GET /api/gamification/points/history?sourceType=BLOG&page=0&size=20
+     */
+    @GetMapping("/points/history")
+    public ResponseEntity<Slice<PointsHistoryEntryResponse>> getMyPointsHistory(
+            @RequestParam(required = false) String sourceType,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        User user = userService.getUserByEmail(AuthenticationUtil.getEmailFromAuthentication(authentication));
+        return ResponseEntity.ok(pointsHistoryService.getHistory(user.getUserId(), sourceType, page, size));
+    }
+
+    /**
+     * My points per day and source type, newest first; defaults to the last 30 days
+     * GET /api/gamification/points/daily?from=2025-01-01&to=2025-01-31&page=0&size=50
+     */
+    @GetMapping("/points/daily")
+    public ResponseEntity<Slice<PointsDailyRollupResponse>> getMyDailyPoints(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            Authentication authentication) {
+        User user = userService.getUserByEmail(AuthenticationUtil.getEmailFromAuthentication(authentication));
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        return ResponseEntity.ok(pointsHistoryService.getDailyRollups(user.getUserId(), start, end, page, size));
+    }
+
+    /**
+     * My net points per day for the dashboard chart, read from the daily rollups
+     * GET /api/gamification/points/series?days=30
+     */
+    @GetMapping("/points/series")
+    public ResponseEntity<List<PointsSeriesPointResponse>> getMyPointsSeries(
+            @RequestParam(defaultValue = "30") int days,
+            Authentication authentication) {
+        User user = userService.getUserByEmail(AuthenticationUtil.getEmailFromAuthentication(authentication));
+        return ResponseEntity.ok(pointsHistoryService.getSeries(user.getUserId(), days));
+    }
 }
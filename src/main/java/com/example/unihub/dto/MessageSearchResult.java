@@ -0,0 +1,15 @@
+package com.example.unihub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageSearchResult {
+    private MessageResponse message;
+    // HTML-escaped excerpt with matches wrapped in <mark></mark>
+    private String snippet;
+    private Double rank;
+}
@@ -0,0 +1,16 @@
+package com.example.unihub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPresenceResponse {
+    private Long userId;
+    private Boolean online;
+    private LocalDateTime lastSeen;
+}
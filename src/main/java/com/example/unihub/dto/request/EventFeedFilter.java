@@ -0,0 +1,24 @@
+package com.example.unihub.dto.request;
+
+import com.example.unihub.enums.EventStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional filters of the event feed; null fields do not filter
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventFeedFilter {
+    private Long universityId;
+    private EventStatus status;
+    private String type;
+    // Events starting in [startFrom, startTo)
+    private LocalDateTime startFrom;
+    private LocalDateTime startTo;
+    private boolean upcomingOnly;
+}
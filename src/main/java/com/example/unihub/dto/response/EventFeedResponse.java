@@ -0,0 +1,16 @@
+package com.example.unihub.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventFeedResponse {
+    private List<EventSummaryResponse> items;
+    // Pass back as cursor to read the next page; null on the last page
+    private String nextCursor;
+}
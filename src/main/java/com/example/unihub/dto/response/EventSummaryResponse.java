@@ -0,0 +1,28 @@
+package com.example.unihub.dto.response;
+
+import com.example.unihub.enums.EventStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventSummaryResponse {
+    private Long eventId;
+    private String title;
+    private String location;
+    private String type;
+    private EventStatus status;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private Long universityId;
+    private String universityName;
+    private Long creatorId;
+    private String creatorName;
+    private Integer participantCount;
+    private Integer maxAttendees;
+    private LocalDateTime createdAt;
+}
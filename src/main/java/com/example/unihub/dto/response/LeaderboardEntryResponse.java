@@ -0,0 +1,16 @@
+package com.example.unihub.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntryResponse {
+    private Long userId;
+    private String name;
+    private Integer points;
+    private String badgeName;
+    private Integer rank;
+}
@@ -0,0 +1,17 @@
+package com.example.unihub.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PointsDailyRollupResponse {
+    private LocalDate day;
+    private String sourceType;
+    private Integer points;
+    private Integer entryCount;
+}
@@ -0,0 +1,19 @@
+package com.example.unihub.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PointsHistoryEntryResponse {
+    private Long pointsLogId;
+    private String sourceType;
+    private Long sourceId;
+    private Integer points;
+    private String description;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,17 @@
+package com.example.unihub.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PointsSeriesPointResponse {
+    private LocalDate date;
+    private Integer points;
+    private Map<String, Integer> bySourceType;
+}
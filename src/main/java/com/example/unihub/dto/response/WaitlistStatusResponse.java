@@ -0,0 +1,19 @@
+package com.example.unihub.dto.response;
+
+import com.example.unihub.enums.ParticipantRole;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistStatusResponse {
+    private Long eventId;
+    private ParticipantRole role;
+    // True once promoted; position and queueLength are then null
+    private boolean joined;
+    // 1 for the user promoted next
+    private Long position;
+    private Long queueLength;
+}
@@ -0,0 +1,20 @@
+package com.example.unihub.enums;
+
+/**
+ * Time window of a members leaderboard; rolling windows count points earned in the last N days
+ */
+public enum LeaderboardWindow {
+    ALL_TIME(0),
+    WEEK(7),
+    MONTH(30);
+
+    private final int days;
+
+    LeaderboardWindow(int days) {
+        this.days = days;
+    }
+
+    public int getDays() {
+        return days;
+    }
+}
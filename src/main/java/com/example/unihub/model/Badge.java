@@ -1,5 +1,6 @@
 package com.example.unihub.model;
 
+import com.example.unihub.service.BadgeCatalog;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -11,6 +12,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "badges")
+@EntityListeners(BadgeCatalog.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -58,8 +58,10 @@ public class Blog {
     @JsonIgnore
     private List<BlogReport> reports;
 
-    @Transient
-    private Long reportCount;
+    // Maintained with atomic increments by ReportService; never written from the entity.
+    // NULL only until ReportCountBackfill seeds rows created before the column existed
+    @Column(name = "report_count", updatable = false)
+    private Long reportCount = 0L;
 
     @PrePersist
     protected void onCreate() {
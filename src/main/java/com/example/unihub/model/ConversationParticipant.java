@@ -8,7 +8,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "conversation_participants")
+@Table(name = "conversation_participants", indexes = {
+        @Index(name = "idx_conversation_participants_user", columnList = "user_id, conversation_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -39,6 +41,10 @@ public class ConversationParticipant {
     @Column(name = "is_hidden")
     private Boolean isHidden = false;
 
+    // Maintained by ChatService on send, delete and read; avoids counting messages on every inbox load
+    @Column(name = "unread_count")
+    private Long unreadCount = 0L;
+
     @PrePersist
     protected void onCreate() {
         joinedAt = LocalDateTime.now();
@@ -7,12 +7,22 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "events")
+@Table(name = "events", indexes = {
+        // Events leaderboard: approved events by participant count, globally and per university
+        @Index(name = "idx_events_status_participants", columnList = "status, participant_count DESC, event_id"),
+        @Index(name = "idx_events_university_status_participants", columnList = "university_id, status, participant_count DESC, event_id"),
+        // Event feed: newest first by (created_at, event_id), unfiltered and per university and/or status
+        @Index(name = "idx_events_created", columnList = "created_at DESC, event_id DESC"),
+        @Index(name = "idx_events_status_created", columnList = "status, created_at DESC, event_id DESC"),
+        @Index(name = "idx_events_university_created", columnList = "university_id, created_at DESC, event_id DESC"),
+        @Index(name = "idx_events_university_status_created", columnList = "university_id, status, created_at DESC, event_id DESC")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -66,6 +76,26 @@ public class Event {
     @Column(name = "attendee_points")
     private Integer attendeePoints = 10;
 
+    // Maintained with atomic increments by the services that add or remove participants;
+    // never written from the entity so a stale copy cannot overwrite a concurrent change
+    @ColumnDefault("0")
+    @Column(name = "participant_count", nullable = false, updatable = false)
+    private Integer participantCount = 0;
+
+    // Taken slots per role, maintained the same way; joins reserve a slot with a conditional
+    // increment against the role's max so concurrent joins cannot overbook
+    @ColumnDefault("0")
+    @Column(name = "organizer_count", nullable = false, updatable = false)
+    private Integer organizerCount = 0;
+
+    @ColumnDefault("0")
+    @Column(name = "volunteer_count", nullable = false, updatable = false)
+    private Integer volunteerCount = 0;
+
+    @ColumnDefault("0")
+    @Column(name = "attendee_count", nullable = false, updatable = false)
+    private Integer attendeeCount = 0;
+
     @ManyToOne
     @JoinColumn(name = "created_by")
     @JsonIgnoreProperties({"createdEvents", "blogs", "eventParticipants", "earnedBadges", "pointsLogs", "notifications", "passwordHash", "university"})
@@ -85,8 +115,10 @@ public class Event {
     @JsonIgnore
     private List<EventReport> reports;
 
-    @Transient
-    private Long reportCount;
+    // Maintained with atomic increments by ReportService; never written from the entity.
+    // NULL only until ReportCountBackfill seeds rows created before the column existed
+    @Column(name = "report_count", updatable = false)
+    private Long reportCount = 0L;
 
     @PrePersist
     protected void onCreate() {
@@ -0,0 +1,54 @@
+package com.example.unihub.model;
+
+import com.example.unihub.enums.ParticipantRole;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A user queued for a full role of an event. Entries of one event and role occupy the
+ * consecutive queue positions [head, tail) of their EventWaitlistQueue.
+ */
+@Entity
+@Table(name = "event_waitlist",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"event_id", "user_id"}),
+       indexes = @Index(name = "idx_event_waitlist_position", columnList = "event_id, role, queue_position"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventWaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "entry_id")
+    private Long entryId;
+
+    @ManyToOne
+    @JoinColumn(name = "event_id", nullable = false)
+    @JsonIgnoreProperties({"participants", "reports", "creator", "university"})
+    private Event event;
+
+    @ManyToOne
+    @JoinColumn(name = "user_id", nullable = false)
+    @JsonIgnoreProperties({"createdEvents", "blogs", "eventParticipants", "earnedBadges", "pointsLogs", "notifications", "passwordHash", "university"})
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ParticipantRole role;
+
+    @Column(name = "queue_position", nullable = false)
+    private Long queuePosition;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
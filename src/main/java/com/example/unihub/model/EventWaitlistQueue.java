@@ -0,0 +1,46 @@
+package com.example.unihub.model;
+
+import com.example.unihub.enums.ParticipantRole;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Bounds of the waitlist of one event and role: head is the queue position promoted next and
+ * tail the one given to the next user queued, so a user's place is their position - head + 1.
+ * Only changed while holding the event row lock.
+ */
+@Entity
+@Table(name = "event_waitlist_queues")
+@IdClass(EventWaitlistQueue.QueueId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventWaitlistQueue {
+
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "role")
+    private ParticipantRole role;
+
+    @Column(name = "head_position", nullable = false)
+    private Long headPosition;
+
+    @Column(name = "tail_position", nullable = false)
+    private Long tailPosition;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class QueueId implements Serializable {
+        private Long eventId;
+        private ParticipantRole role;
+    }
+}
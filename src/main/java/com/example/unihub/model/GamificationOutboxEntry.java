@@ -0,0 +1,62 @@
+package com.example.unihub.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A points change recorded by the request that caused it and applied later by the outbox consumer.
+ * Rows are kept once processed: the unique (source_type, source_id, user_id) key is what makes a
+ * repeated award for the same source a no-op.
+ */
+@Entity
+@Table(name = "gamification_outbox",
+       uniqueConstraints = @UniqueConstraint(name = "uk_gamification_outbox_source",
+               columnNames = {"source_type", "source_id", "user_id"}),
+       indexes = @Index(name = "idx_gamification_outbox_pending", columnList = "processed_at, outbox_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GamificationOutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "outbox_id")
+    private Long outboxId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "source_type", nullable = false)
+    private String sourceType;
+
+    @Column(name = "source_id")
+    private Long sourceId;
+
+    // Signed: negative for penalties
+    @Column(nullable = false)
+    private Integer points;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -10,7 +10,9 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+        @Index(name = "idx_messages_conversation_created", columnList = "conversation_id, created_at, message_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -45,7 +47,7 @@ public class Message {
     @Column(name = "file_size")
     private Long fileSize;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "reply_to_message_id")
     private Message replyToMessage;
 
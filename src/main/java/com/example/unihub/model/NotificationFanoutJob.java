@@ -0,0 +1,63 @@
+package com.example.unihub.model;
+
+import com.example.unihub.enums.NotificationType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/**
+ * One notification to deliver to every participant of an event, written in chunks by
+ * NotificationFanoutService. Participants are visited in user id order and last_user_id is
+ * advanced in the same transaction as each chunk's notifications, so a restarted job resumes
+ * after the last committed chunk without notifying anyone twice.
+ */
+@Entity
+@Table(name = "notification_fanout_jobs",
+       indexes = @Index(name = "idx_notification_fanout_pending", columnList = "completed_at, job_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationFanoutJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "job_id")
+    private Long jobId;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String message;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationType type;
+
+    @Column(name = "link_url", columnDefinition = "TEXT")
+    private String linkUrl;
+
+    // Highest participant user id already notified
+    @ColumnDefault("0")
+    @Column(name = "last_user_id", nullable = false)
+    private Long lastUserId = 0L;
+
+    @ColumnDefault("0")
+    @Column(name = "notified_count", nullable = false)
+    private Integer notifiedCount = 0;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.unihub.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Net points and number of points log entries for one user, source type and day.
+ * Kept up to date in the transaction that writes each points log entry.
+ */
+@Entity
+@Table(name = "points_daily_rollups", indexes = {
+        @Index(name = "idx_points_rollup_user_day", columnList = "user_id, rollup_day"),
+        // Site-wide series scan a day range across all users
+        @Index(name = "idx_points_rollup_day", columnList = "rollup_day")
+})
+@IdClass(PointsDailyRollup.RollupId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PointsDailyRollup {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "rollup_day")
+    private LocalDate rollupDay;
+
+    @Id
+    @Column(name = "source_type")
+    private String sourceType;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Integer points;
+
+    @ColumnDefault("0")
+    @Column(name = "entry_count", nullable = false)
+    private Integer entryCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RollupId implements Serializable {
+        private Long userId;
+        private LocalDate rollupDay;
+        private String sourceType;
+    }
+}
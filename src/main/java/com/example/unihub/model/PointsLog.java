@@ -9,7 +9,12 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "points_log")
+@Table(name = "points_log", indexes = {
+        // Paginated per-user history, newest first
+        @Index(name = "idx_points_log_user_created", columnList = "user_id, created_at"),
+        // Time-range scans for the windowed leaderboards
+        @Index(name = "idx_points_log_created_at", columnList = "created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -12,7 +12,11 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        // Leaderboard pages: ORDER BY points DESC, user_id, optionally within one university
+        @Index(name = "idx_users_university_points", columnList = "university_id, points DESC, user_id"),
+        @Index(name = "idx_users_points", columnList = "points DESC, user_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -45,7 +49,9 @@ public class User {
     @Column(nullable = false)
     private UserRole role;
 
-    @Column(nullable = false)
+    // Written on insert only; later changes go through UserRepository.addPoints so that a
+    // stale copy of the user being saved cannot overwrite a concurrent award
+    @Column(nullable = false, updatable = false)
     private Integer points = 0;
 
     @ManyToOne
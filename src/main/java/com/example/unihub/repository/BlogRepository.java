@@ -3,7 +3,9 @@ package com.example.unihub.repository;
 import com.example.unihub.model.Blog;
 import com.example.unihub.enums.BlogStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,6 +13,10 @@ import java.util.List;
 @Repository
 public interface BlogRepository extends JpaRepository<Blog, Long> {
     
+    @Modifying
+    @Query("UPDATE Blog b SET b.reportCount = b.reportCount + :delta WHERE b.blogId = :blogId")
+    int adjustReportCount(@Param("blogId") Long blogId, @Param("delta") long delta);
+
     // Filter by university and status
     List<Blog> findByUniversityUniversityIdAndStatus(Long universityId, BlogStatus status);
     
@@ -2,10 +2,13 @@ package com.example.unihub.repository;
 
 import com.example.unihub.model.ConversationParticipant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,8 +19,38 @@ public interface ConversationParticipantRepository extends JpaRepository<Convers
 
     Optional<ConversationParticipant> findByConversationConversationIdAndUserUserId(Long conversationId, Long userId);
 
-    @Query("SELECT COUNT(m) FROM Message m WHERE m.conversation.conversationId = :conversationId " +
-           "AND m.createdAt > COALESCE((SELECT cp.lastReadAt FROM ConversationParticipant cp " +
-           "WHERE cp.conversation.conversationId = :conversationId AND cp.user.userId = :userId), m.conversation.createdAt)")
-    Long countUnreadMessages(@Param("conversationId") Long conversationId, @Param("userId") Long userId);
+    @Query("SELECT p FROM ConversationParticipant p JOIN FETCH p.user " +
+           "WHERE p.conversation.conversationId IN :conversationIds ORDER BY p.joinedAt ASC")
+    List<ConversationParticipant> findByConversationIdsWithUser(@Param("conversationIds") Collection<Long> conversationIds);
+
+    // One statement per message regardless of group size
+    @Modifying
+    @Query("UPDATE ConversationParticipant p SET p.unreadCount = COALESCE(p.unreadCount, 0) + 1 " +
+           "WHERE p.conversation.conversationId = :conversationId AND p.user.userId <> :senderId")
+    int incrementUnreadCounts(@Param("conversationId") Long conversationId, @Param("senderId") Long senderId);
+
+    // Only participants who had not read the message yet had it counted
+    @Modifying
+    @Query("UPDATE ConversationParticipant p SET p.unreadCount = p.unreadCount - 1 " +
+           "WHERE p.conversation.conversationId = :conversationId AND p.user.userId <> :senderId " +
+           "AND p.unreadCount > 0 AND (p.lastReadAt IS NULL OR p.lastReadAt < :sentAt)")
+    int decrementUnreadCounts(@Param("conversationId") Long conversationId,
+                              @Param("senderId") Long senderId,
+                              @Param("sentAt") LocalDateTime sentAt);
+
+    // Rows of [userId, unreadCount] for everyone in the conversation except the given user
+    @Query("SELECT p.user.userId, p.unreadCount FROM ConversationParticipant p " +
+           "WHERE p.conversation.conversationId = :conversationId AND p.user.userId <> :userId")
+    List<Object[]> findUnreadCountsExcludingUser(@Param("conversationId") Long conversationId,
+                                                 @Param("userId") Long userId);
+
+    // Rows of [name, email] for the member, empty if the user is not in the conversation
+    @Query("SELECT u.name, u.email FROM ConversationParticipant p JOIN p.user u " +
+           "WHERE p.conversation.conversationId = :conversationId AND u.userId = :userId")
+    List<Object[]> findMemberSummary(@Param("conversationId") Long conversationId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE ConversationParticipant p SET p.isHidden = true " +
+           "WHERE p.conversation.conversationId = :conversationId AND p.user.userId = :userId")
+    int hideForUser(@Param("conversationId") Long conversationId, @Param("userId") Long userId);
 }
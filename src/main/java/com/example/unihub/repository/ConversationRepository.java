@@ -1,19 +1,34 @@
 package com.example.unihub.repository;
 
 import com.example.unihub.model.Conversation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ConversationRepository extends JpaRepository<Conversation, Long> {
 
-    @Query("SELECT DISTINCT c FROM Conversation c JOIN ConversationParticipant p ON p.conversation.conversationId = c.conversationId WHERE p.user.userId = :userId AND (p.isHidden = false OR p.isHidden IS NULL) ORDER BY c.updatedAt DESC")
-    List<Conversation> findByUserId(@Param("userId") Long userId);
+    // Inbox, newest activity first; (updatedAt, conversationId) is the cursor
+    @Query("SELECT DISTINCT c FROM Conversation c JOIN ConversationParticipant p ON p.conversation.conversationId = c.conversationId " +
+           "WHERE p.user.userId = :userId AND (p.isHidden = false OR p.isHidden IS NULL) " +
+           "ORDER BY c.updatedAt DESC, c.conversationId DESC")
+    List<Conversation> findInbox(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT DISTINCT c FROM Conversation c JOIN ConversationParticipant p ON p.conversation.conversationId = c.conversationId " +
+           "WHERE p.user.userId = :userId AND (p.isHidden = false OR p.isHidden IS NULL) " +
+           "AND (c.updatedAt < :before OR (c.updatedAt = :before AND c.conversationId < :beforeId)) " +
+           "ORDER BY c.updatedAt DESC, c.conversationId DESC")
+    List<Conversation> findInboxBefore(@Param("userId") Long userId,
+                                       @Param("before") LocalDateTime before,
+                                       @Param("beforeId") Long beforeId,
+                                       Pageable pageable);
 
     @Query("SELECT c FROM Conversation c WHERE c.conversationId IN " +
            "(SELECT p1.conversation.conversationId FROM ConversationParticipant p1 WHERE p1.user.userId = :userId1) " +
@@ -21,4 +36,9 @@ public interface ConversationRepository extends JpaRepository<Conversation, Long
            "(SELECT p2.conversation.conversationId FROM ConversationParticipant p2 WHERE p2.user.userId = :userId2) " +
            "AND c.isGroup = false")
     Optional<Conversation> findDirectConversation(@Param("userId1") Long userId1, @Param("userId2") Long userId2);
+
+    // Moves the conversation to the top of its members' inboxes without loading it
+    @Modifying
+    @Query("UPDATE Conversation c SET c.updatedAt = :updatedAt WHERE c.conversationId = :conversationId")
+    int touch(@Param("conversationId") Long conversationId, @Param("updatedAt") LocalDateTime updatedAt);
 }
@@ -0,0 +1,20 @@
+package com.example.unihub.repository;
+
+import com.example.unihub.dto.request.EventFeedFilter;
+import com.example.unihub.dto.response.EventSummaryResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keyset-paginated event feed, newest first by (createdAt, eventId)
+ */
+public interface EventFeedRepository {
+
+    /**
+     * Up to limit events matching the filter that sort after the cursor
+     * @param afterCreatedAt createdAt of the last event already read, or null for the first page
+     * @param afterEventId   eventId of the last event already read, or null for the first page
+     */
+    List<EventSummaryResponse> findFeedPage(EventFeedFilter filter, LocalDateTime afterCreatedAt, Long afterEventId, int limit);
+}
@@ -0,0 +1,73 @@
+package com.example.unihub.repository;
+
+import com.example.unihub.dto.request.EventFeedFilter;
+import com.example.unihub.dto.response.EventSummaryResponse;
+import com.example.unihub.model.Event;
+import com.example.unihub.model.University;
+import com.example.unihub.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the feed query from only the filters that are set, so each combination gets a plain
+ * predicate the matching composite index on events can serve, and selects the summary columns
+ * directly instead of loading events with their associations.
+ */
+class EventFeedRepositoryImpl implements EventFeedRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<EventSummaryResponse> findFeedPage(EventFeedFilter filter, LocalDateTime afterCreatedAt,
+                                                   Long afterEventId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EventSummaryResponse> query = cb.createQuery(EventSummaryResponse.class);
+        Root<Event> event = query.from(Event.class);
+        Join<Event, University> university = event.join("university", JoinType.LEFT);
+        Join<Event, User> creator = event.join("creator", JoinType.LEFT);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getUniversityId() != null) {
+            predicates.add(cb.equal(event.get("university").get("universityId"), filter.getUniversityId()));
+        }
+        if (filter.getStatus() != null) {
+            predicates.add(cb.equal(event.get("status"), filter.getStatus()));
+        }
+        if (filter.getType() != null) {
+            predicates.add(cb.equal(event.get("type"), filter.getType()));
+        }
+        if (filter.getStartFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(event.get("startDate"), filter.getStartFrom()));
+        }
+        if (filter.getStartTo() != null) {
+            predicates.add(cb.lessThan(event.get("startDate"), filter.getStartTo()));
+        }
+        if (filter.isUpcomingOnly()) {
+            predicates.add(cb.greaterThan(event.get("startDate"), LocalDateTime.now()));
+        }
+        if (afterCreatedAt != null && afterEventId != null) {
+            Path<LocalDateTime> createdAt = event.get("createdAt");
+            Path<Long> eventId = event.get("eventId");
+            predicates.add(cb.or(
+                    cb.lessThan(createdAt, afterCreatedAt),
+                    cb.and(cb.equal(createdAt, afterCreatedAt), cb.lessThan(eventId, afterEventId))));
+        }
+
+        query.select(cb.construct(EventSummaryResponse.class,
+                        event.get("eventId"), event.get("title"), event.get("location"), event.get("type"),
+                        event.get("status"), event.get("startDate"), event.get("endDate"),
+                        university.get("universityId"), university.get("name"),
+                        creator.get("userId"), creator.get("name"),
+                        event.get("participantCount"), event.get("maxAttendees"), event.get("createdAt")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(event.get("createdAt")), cb.desc(event.get("eventId")));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
@@ -2,16 +2,21 @@ package com.example.unihub.repository;
 
 import com.example.unihub.model.Event;
 import com.example.unihub.enums.EventStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface EventRepository extends JpaRepository<Event, Long> {
+public interface EventRepository extends JpaRepository<Event, Long>, EventFeedRepository {
     
     // Filter by university and status (newest first)
     List<Event> findByUniversityUniversityIdAndStatusOrderByCreatedAtDesc(Long universityId, EventStatus status);
@@ -30,16 +35,61 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     
     List<Event> findByStartDateBetween(LocalDateTime start, LocalDateTime end);
     
-    // Top events by participants count (for leaderboard)
-    @Query("SELECT e FROM Event e LEFT JOIN e.participants p " +
-           "WHERE e.status = 'APPROVED' " +
-           "GROUP BY e.eventId ORDER BY COUNT(p) DESC")
-    List<Event> findTopEventsByParticipantsCount();
-    
-    @Query("SELECT e FROM Event e LEFT JOIN e.participants p " +
-           "WHERE e.status = 'APPROVED' AND e.university.universityId = :universityId " +
-           "GROUP BY e.eventId ORDER BY COUNT(p) DESC")
-    List<Event> findTopEventsByParticipantsCountForUniversity(@Param("universityId") Long universityId);
+    // Events by participant count (for leaderboard), read from the maintained counter
+    List<Event> findByStatusOrderByParticipantCountDescEventIdAsc(EventStatus status);
+
+    List<Event> findByUniversityUniversityIdAndStatusOrderByParticipantCountDescEventIdAsc(Long universityId, EventStatus status);
+
+    // [eventId, universityId, participantCount] for every approved event
+    @Query("SELECT e.eventId, u.universityId, e.participantCount FROM Event e LEFT JOIN e.university u " +
+           "WHERE e.status = 'APPROVED'")
+    List<Object[]> findEventLeaderboardStandings();
+
+    @Modifying
+    @Query("UPDATE Event e SET e.reportCount = e.reportCount + :delta WHERE e.eventId = :eventId")
+    int adjustReportCount(@Param("eventId") Long eventId, @Param("delta") long delta);
+
+    // Serializes waitlist changes of one event with its joins and leaves
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Event e WHERE e.eventId = :eventId")
+    Optional<Event> findByIdForUpdate(@Param("eventId") Long eventId);
+
+    // Takes one slot of the role if the role is below its max; returns 0 if the role is full.
+    // Only this event's row is locked, so joins to other events never wait on each other
+    @Modifying
+    @Query("UPDATE Event e SET e.participantCount = e.participantCount + 1, " +
+           "e.organizerCount = e.organizerCount + CASE WHEN :role = 'ORGANIZER' THEN 1 ELSE 0 END, " +
+           "e.volunteerCount = e.volunteerCount + CASE WHEN :role = 'VOLUNTEER' THEN 1 ELSE 0 END, " +
+           "e.attendeeCount = e.attendeeCount + CASE WHEN :role = 'ATTENDEE' THEN 1 ELSE 0 END " +
+           "WHERE e.eventId = :eventId AND (" +
+           "(:role = 'ORGANIZER' AND (e.maxOrganizers IS NULL OR e.organizerCount < e.maxOrganizers)) OR " +
+           "(:role = 'VOLUNTEER' AND (e.maxVolunteers IS NULL OR e.volunteerCount < e.maxVolunteers)) OR " +
+           "(:role = 'ATTENDEE' AND (e.maxAttendees IS NULL OR e.attendeeCount < e.maxAttendees)))")
+    int reserveSlot(@Param("eventId") Long eventId, @Param("role") String role);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.participantCount = e.participantCount - 1, " +
+           "e.organizerCount = e.organizerCount - CASE WHEN :role = 'ORGANIZER' THEN 1 ELSE 0 END, " +
+           "e.volunteerCount = e.volunteerCount - CASE WHEN :role = 'VOLUNTEER' THEN 1 ELSE 0 END, " +
+           "e.attendeeCount = e.attendeeCount - CASE WHEN :role = 'ATTENDEE' THEN 1 ELSE 0 END " +
+           "WHERE e.eventId = :eventId")
+    int releaseSlot(@Param("eventId") Long eventId, @Param("role") String role);
+
+    // Realigns every counter with the participants table
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE events e SET " +
+                   "participant_count = (SELECT COUNT(*) FROM event_participants p WHERE p.event_id = e.event_id), " +
+                   "organizer_count = (SELECT COUNT(*) FROM event_participants p WHERE p.event_id = e.event_id AND p.role = 'ORGANIZER'), " +
+                   "volunteer_count = (SELECT COUNT(*) FROM event_participants p WHERE p.event_id = e.event_id AND p.role = 'VOLUNTEER'), " +
+                   "attendee_count = (SELECT COUNT(*) FROM event_participants p WHERE p.event_id = e.event_id AND p.role = 'ATTENDEE') " +
+                   "WHERE participant_count IS NULL OR participant_count <> " +
+                   "(SELECT COUNT(*) FROM event_participants p WHERE p.event_id = e.event_id) " +
+                   "OR organizer_count <> (SELECT COUNT(*) FROM event_participants p WHERE p.event_id = e.event_id AND p.role = 'ORGANIZER') " +
+                   "OR volunteer_count <> (SELECT COUNT(*) FROM event_participants p WHERE p.event_id = e.event_id AND p.role = 'VOLUNTEER') " +
+                   "OR attendee_count <> (SELECT COUNT(*) FROM event_participants p WHERE p.event_id = e.event_id AND p.role = 'ATTENDEE')",
+           nativeQuery = true)
+    int recountParticipants();
     
     // Count events
     long countByStatus(EventStatus status);
@@ -0,0 +1,16 @@
+package com.example.unihub.repository;
+
+import com.example.unihub.model.EventWaitlistQueue;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EventWaitlistQueueRepository extends JpaRepository<EventWaitlistQueue, EventWaitlistQueue.QueueId> {
+
+    @Modifying
+    @Query("DELETE FROM EventWaitlistQueue q WHERE q.eventId = :eventId")
+    int deleteByEventId(@Param("eventId") Long eventId);
+}
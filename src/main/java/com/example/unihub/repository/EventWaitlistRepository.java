@@ -0,0 +1,29 @@
+package com.example.unihub.repository;
+
+import com.example.unihub.enums.ParticipantRole;
+import com.example.unihub.model.EventWaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface EventWaitlistRepository extends JpaRepository<EventWaitlistEntry, Long> {
+
+    Optional<EventWaitlistEntry> findByEventEventIdAndUserUserId(Long eventId, Long userId);
+
+    Optional<EventWaitlistEntry> findByEventEventIdAndRoleAndQueuePosition(Long eventId, ParticipantRole role, Long queuePosition);
+
+    // Closes the gap a withdrawn entry leaves so positions stay consecutive
+    @Modifying
+    @Query("UPDATE EventWaitlistEntry w SET w.queuePosition = w.queuePosition - 1 " +
+           "WHERE w.event.eventId = :eventId AND w.role = :role AND w.queuePosition > :position")
+    int moveUpBehind(@Param("eventId") Long eventId, @Param("role") ParticipantRole role, @Param("position") Long position);
+
+    @Modifying
+    @Query("DELETE FROM EventWaitlistEntry w WHERE w.event.eventId = :eventId")
+    int deleteByEventId(@Param("eventId") Long eventId);
+}
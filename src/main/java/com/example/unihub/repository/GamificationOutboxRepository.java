@@ -0,0 +1,45 @@
+package com.example.unihub.repository;
+
+import com.example.unihub.model.GamificationOutboxEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface GamificationOutboxRepository extends JpaRepository<GamificationOutboxEntry, Long> {
+
+    // Returns 0 if this source already recorded a change for the user. The only other unique key is the
+    // generated id, so the bare ON CONFLICT only ever fires on uk_gamification_outbox_source
+    @Modifying
+    @Query(value = "INSERT INTO gamification_outbox (user_id, source_type, source_id, points, description, attempts, created_at) " +
+                   "VALUES (:userId, :sourceType, :sourceId, :points, :description, 0, :createdAt) " +
+                   "ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("sourceType") String sourceType,
+                       @Param("sourceId") Long sourceId, @Param("points") int points,
+                       @Param("description") String description, @Param("createdAt") LocalDateTime createdAt);
+
+    // Oldest unprocessed entries that have not used up their retries
+    @Query("SELECT o FROM GamificationOutboxEntry o WHERE o.processedAt IS NULL AND o.attempts < :maxAttempts " +
+           "ORDER BY o.outboxId")
+    List<GamificationOutboxEntry> findPending(@Param("maxAttempts") int maxAttempts, Pageable pageable);
+
+    // Claims one entry; returns 0 if another consumer already processed it
+    @Modifying
+    @Query("UPDATE GamificationOutboxEntry o SET o.processedAt = :processedAt " +
+           "WHERE o.outboxId = :outboxId AND o.processedAt IS NULL")
+    int markProcessed(@Param("outboxId") Long outboxId, @Param("processedAt") LocalDateTime processedAt);
+
+    @Modifying
+    @Query("UPDATE GamificationOutboxEntry o SET o.attempts = o.attempts + 1, o.lastError = :error " +
+           "WHERE o.outboxId IN :outboxIds")
+    int recordFailure(@Param("outboxIds") List<Long> outboxIds, @Param("error") String error);
+
+    long countByProcessedAtIsNull();
+}
@@ -2,8 +2,11 @@ package com.example.unihub.repository;
 
 import com.example.unihub.model.MessageReadReceipt;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,4 +16,9 @@ public interface MessageReadReceiptRepository extends JpaRepository<MessageReadR
     List<MessageReadReceipt> findByMessageMessageId(Long messageId);
 
     Optional<MessageReadReceipt> findByMessageMessageIdAndUserUserId(Long messageId, Long userId);
+
+    // Loads read receipts for a whole page of messages in one round trip
+    @Query("SELECT r FROM MessageReadReceipt r JOIN FETCH r.user " +
+           "WHERE r.message.messageId IN :messageIds ORDER BY r.readAt ASC")
+    List<MessageReadReceipt> findByMessageIdsWithUser(@Param("messageIds") Collection<Long> messageIds);
 }
@@ -3,11 +3,13 @@ package com.example.unihub.repository;
 import com.example.unihub.model.Message;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -15,8 +17,80 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
 
     Page<Message> findByConversationConversationIdAndIsDeletedFalseOrderByCreatedAtDesc(Long conversationId, Pageable pageable);
 
-    @Query("SELECT m FROM Message m WHERE m.conversation.conversationId = :conversationId " +
-           "AND m.isDeleted = false AND LOWER(m.content) LIKE LOWER(CONCAT('%', :query, '%')) " +
-           "ORDER BY m.createdAt DESC")
-    List<Message> searchMessages(@Param("conversationId") Long conversationId, @Param("query") String query);
+    // Same page as above, with sender and reply target fetched in the page query itself
+    @Query(value = "SELECT m FROM Message m JOIN FETCH m.sender " +
+                   "LEFT JOIN FETCH m.replyToMessage r LEFT JOIN FETCH r.sender " +
+                   "WHERE m.conversation.conversationId = :conversationId AND m.isDeleted = false " +
+                   "ORDER BY m.createdAt DESC",
+           countQuery = "SELECT COUNT(m) FROM Message m " +
+                        "WHERE m.conversation.conversationId = :conversationId AND m.isDeleted = false")
+    Page<Message> findPageWithSenders(@Param("conversationId") Long conversationId, Pageable pageable);
+
+    // Keyset history: newest first, no count query; pages walk back from a message id
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender LEFT JOIN FETCH m.replyToMessage r LEFT JOIN FETCH r.sender " +
+           "WHERE m.conversation.conversationId = :conversationId AND m.isDeleted = false " +
+           "ORDER BY m.createdAt DESC, m.messageId DESC")
+    Slice<Message> findHistory(@Param("conversationId") Long conversationId, Pageable pageable);
+
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender LEFT JOIN FETCH m.replyToMessage r LEFT JOIN FETCH r.sender " +
+           "WHERE m.conversation.conversationId = :conversationId AND m.isDeleted = false " +
+           "AND (m.createdAt < (SELECT b.createdAt FROM Message b WHERE b.messageId = :beforeId) " +
+           "OR (m.createdAt = (SELECT b.createdAt FROM Message b WHERE b.messageId = :beforeId) AND m.messageId < :beforeId)) " +
+           "ORDER BY m.createdAt DESC, m.messageId DESC")
+    Slice<Message> findHistoryBefore(@Param("conversationId") Long conversationId,
+                                     @Param("beforeId") Long beforeId,
+                                     Pageable pageable);
+
+    // Latest non-deleted message of each conversation, for the inbox
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender LEFT JOIN FETCH m.replyToMessage r LEFT JOIN FETCH r.sender " +
+           "WHERE m.messageId IN (SELECT MAX(m2.messageId) FROM Message m2 " +
+           "WHERE m2.conversation.conversationId IN :conversationIds AND m2.isDeleted = false " +
+           "GROUP BY m2.conversation.conversationId)")
+    List<Message> findLastMessages(@Param("conversationIds") Collection<Long> conversationIds);
+
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender LEFT JOIN FETCH m.replyToMessage r LEFT JOIN FETCH r.sender " +
+           "WHERE m.messageId IN :messageIds")
+    List<Message> findAllWithSendersByIdIn(@Param("messageIds") Collection<Long> messageIds);
+
+    // Shared by both searches; each one supplies the tsquery q and the ORDER BY
+    String SEARCH_SELECT = "SELECT m.message_id AS \"messageId\", " +
+                           "CAST(ts_rank(m.content_tsv, q) AS double precision) AS \"rank\", " +
+                           "ts_headline('simple', replace(replace(replace(m.content, '&', '&amp;'), '<', '&lt;'), '>', '&gt;'), q, " +
+                           "'StartSel=<mark>, StopSel=</mark>, MaxWords=30, MinWords=10') AS \"snippet\" " +
+                           "FROM messages m " +
+                           "JOIN conversation_participants cp ON cp.conversation_id = m.conversation_id AND cp.user_id = :userId ";
+    String SEARCH_FILTER = "WHERE m.content_tsv @@ q AND m.is_deleted = false " +
+                           "AND ((CAST(:conversationId AS bigint) IS NULL AND (cp.is_hidden = false OR cp.is_hidden IS NULL)) " +
+                           "OR m.conversation_id = CAST(:conversationId AS bigint)) " +
+                           "ORDER BY \"rank\" DESC, m.created_at DESC";
+
+    /**
+     * Ranked full-text search over the content_tsv GIN index (see MessageSearchIndexInitializer),
+     * limited to conversations the user participates in. A null conversationId searches all of them.
+     */
+    @Query(value = SEARCH_SELECT + "CROSS JOIN websearch_to_tsquery('simple', :query) q " + SEARCH_FILTER,
+           nativeQuery = true)
+    Slice<SearchHit> searchFullText(@Param("userId") Long userId,
+                                    @Param("conversationId") Long conversationId,
+                                    @Param("query") String query,
+                                    Pageable pageable);
+
+    /**
+     * The same search for a tsquery of prefix terms such as {@code 'hel':* & 'wor':*}, so partial
+     * words still match through the GIN index
+     */
+    @Query(value = SEARCH_SELECT + "CROSS JOIN to_tsquery('simple', :tsquery) q " + SEARCH_FILTER,
+           nativeQuery = true)
+    Slice<SearchHit> searchPrefix(@Param("userId") Long userId,
+                                  @Param("conversationId") Long conversationId,
+                                  @Param("tsquery") String tsquery,
+                                  Pageable pageable);
+
+    interface SearchHit {
+        Long getMessageId();
+
+        Double getRank();
+
+        String getSnippet();
+    }
 }
@@ -0,0 +1,32 @@
+package com.example.unihub.repository;
+
+import com.example.unihub.model.NotificationFanoutJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationFanoutJobRepository extends JpaRepository<NotificationFanoutJob, Long> {
+
+    @Query("SELECT j.jobId FROM NotificationFanoutJob j WHERE j.completedAt IS NULL ORDER BY j.jobId")
+    List<Long> findPendingIds(Pageable pageable);
+
+    // Claims the chunk after :fromUserId; returns 0 if another worker already wrote it
+    @Modifying
+    @Query("UPDATE NotificationFanoutJob j SET j.lastUserId = :toUserId, j.notifiedCount = j.notifiedCount + :count " +
+           "WHERE j.jobId = :jobId AND j.lastUserId = :fromUserId AND j.completedAt IS NULL")
+    int advance(@Param("jobId") Long jobId, @Param("fromUserId") Long fromUserId,
+                @Param("toUserId") Long toUserId, @Param("count") int count);
+
+    @Modifying
+    @Query("UPDATE NotificationFanoutJob j SET j.completedAt = :completedAt WHERE j.jobId = :jobId AND j.completedAt IS NULL")
+    int markCompleted(@Param("jobId") Long jobId, @Param("completedAt") LocalDateTime completedAt);
+
+    long countByCompletedAtIsNull();
+}
@@ -0,0 +1,56 @@
+package com.example.unihub.repository;
+
+import com.example.unihub.model.PointsDailyRollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface PointsDailyRollupRepository extends JpaRepository<PointsDailyRollup, PointsDailyRollup.RollupId> {
+
+    // Returns 0 if the day has no row for this user and source type yet
+    @Modifying
+    @Query("UPDATE PointsDailyRollup r SET r.points = r.points + :points, r.entryCount = r.entryCount + 1 " +
+           "WHERE r.userId = :userId AND r.rollupDay = :day AND r.sourceType = :sourceType")
+    int increment(@Param("userId") Long userId, @Param("day") LocalDate day,
+                  @Param("sourceType") String sourceType, @Param("points") int points);
+
+    @Modifying
+    @Query(value = "INSERT INTO points_daily_rollups (user_id, rollup_day, source_type, points, entry_count) " +
+                   "VALUES (:userId, :day, :sourceType, :points, 1)",
+           nativeQuery = true)
+    int insertFirst(@Param("userId") Long userId, @Param("day") LocalDate day,
+                    @Param("sourceType") String sourceType, @Param("points") int points);
+
+    Slice<PointsDailyRollup> findByUserIdAndRollupDayBetween(Long userId, LocalDate from, LocalDate to, Pageable pageable);
+
+    // Rows of [day, sourceType, points] for one user
+    @Query("SELECT r.rollupDay, r.sourceType, r.points FROM PointsDailyRollup r " +
+           "WHERE r.userId = :userId AND r.rollupDay BETWEEN :from AND :to")
+    List<Object[]> findUserSeries(@Param("userId") Long userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Rows of [day, sourceType, points] summed over every user
+    @Query("SELECT r.rollupDay, r.sourceType, SUM(r.points) FROM PointsDailyRollup r " +
+           "WHERE r.rollupDay BETWEEN :from AND :to GROUP BY r.rollupDay, r.sourceType")
+    List<Object[]> findSiteSeries(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Rows of [day, userId, points] over every source type, for the windowed leaderboards
+    @Query("SELECT r.rollupDay, r.userId, SUM(r.points) FROM PointsDailyRollup r " +
+           "WHERE r.rollupDay >= :from GROUP BY r.rollupDay, r.userId")
+    List<Object[]> findUserDayTotalsSince(@Param("from") LocalDate from);
+
+    // Sum points for analytics
+    @Query("SELECT SUM(r.points) FROM PointsDailyRollup r WHERE r.userId = :userId")
+    Long sumPointsByUserId(@Param("userId") Long userId);
+
+    // Rows of [sourceType, points, entries] over every user and day
+    @Query("SELECT r.sourceType, SUM(r.points), SUM(r.entryCount) FROM PointsDailyRollup r GROUP BY r.sourceType")
+    List<Object[]> sumPointsBySourceType();
+}
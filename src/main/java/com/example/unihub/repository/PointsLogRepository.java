@@ -1,6 +1,8 @@
 package com.example.unihub.repository;
 
 import com.example.unihub.model.PointsLog;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -10,19 +12,15 @@ import java.util.List;
 @Repository
 public interface PointsLogRepository extends JpaRepository<PointsLog, Long> {
     
-    // Get all points logs for a user
-    List<PointsLog> findByUserUserIdOrderByCreatedAtDesc(Long userId);
-    
+    // One page of a user's points history; order comes from the pageable
+    Slice<PointsLog> findByUserUserId(Long userId, Pageable pageable);
+
     // Filter by source type
-    List<PointsLog> findByUserUserIdAndSourceType(Long userId, String sourceType);
+    Slice<PointsLog> findByUserUserIdAndSourceType(Long userId, String sourceType, Pageable pageable);
     
     // Get points for specific source
     List<PointsLog> findBySourceTypeAndSourceId(String sourceType, Long sourceId);
     
-    // Sum points for analytics
-    @Query("SELECT SUM(p.points) FROM PointsLog p WHERE p.user.userId = :userId")
-    Integer sumPointsByUserId(Long userId);
-    
-    @Query("SELECT SUM(p.points) FROM PointsLog p WHERE p.sourceType = :sourceType")
-    Integer sumPointsBySourceType(String sourceType);
+    @Query("SELECT COALESCE(MAX(p.pointsLogId), 0) FROM PointsLog p")
+    long findMaxId();
 }
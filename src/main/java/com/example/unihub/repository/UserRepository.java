@@ -1,10 +1,16 @@
 package com.example.unihub.repository;
 
+import com.example.unihub.model.Badge;
 import com.example.unihub.model.User;
 import com.example.unihub.enums.UserRole;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -21,6 +27,61 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByUniversityUniversityIdOrderByPointsDesc(Long universityId);
     
     List<User> findAllByOrderByPointsDesc();
+
+    // Rows of [userId, universityId, points] used to seed the in-memory leaderboard
+    @Query("SELECT u.userId, un.universityId, u.points FROM User u LEFT JOIN u.university un")
+    List<Object[]> findLeaderboardStandings();
+
+    // Rows for users created, or with points log entries, after a leaderboard snapshot was taken
+    @Query("SELECT u.userId, un.universityId, u.points FROM User u LEFT JOIN u.university un " +
+           "WHERE u.userId > :maxUserId OR u.createdAt >= :since OR u.userId IN " +
+           "(SELECT p.user.userId FROM PointsLog p WHERE p.pointsLogId > :pointsLogWatermark OR p.createdAt >= :since)")
+    List<Object[]> findLeaderboardStandingsChangedSince(@Param("pointsLogWatermark") long pointsLogWatermark,
+                                                        @Param("maxUserId") long maxUserId,
+                                                        @Param("since") LocalDateTime since);
+
+    @Query("SELECT COALESCE(MAX(u.userId), 0) FROM User u")
+    long findMaxUserId();
+
+    // The same row for a single user; empty if the user no longer exists
+    @Query("SELECT u.userId, un.universityId, u.points FROM User u LEFT JOIN u.university un WHERE u.userId = :userId")
+    List<Object[]> findLeaderboardStanding(@Param("userId") Long userId);
+
+    // Points are only changed through these statements; the row lock they take serializes concurrent awards
+    @Modifying
+    @Query("UPDATE User u SET u.points = CASE WHEN u.points + :delta < 0 THEN 0 ELSE u.points + :delta END " +
+           "WHERE u.userId = :userId")
+    int addPoints(@Param("userId") Long userId, @Param("delta") int delta);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.points = :points, u.updatedAt = CURRENT_TIMESTAMP WHERE u.userId = :userId")
+    int overwritePoints(@Param("userId") Long userId, @Param("points") int points);
+
+    @Query("SELECT u.points FROM User u WHERE u.userId = :userId")
+    Integer findPointsById(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE User u SET u.currentBadge = :badge, u.updatedAt = CURRENT_TIMESTAMP WHERE u.userId = :userId")
+    int updateCurrentBadge(@Param("userId") Long userId, @Param("badge") Badge badge);
+
+    // Row of [userCount, lastUpdatedAt] for the members in a leaderboard scope; with the points log
+    // watermark it changes whenever any row a leaderboard page shows changes, on any replica
+    @Query("SELECT COUNT(u), MAX(u.updatedAt) FROM User u")
+    List<Object[]> findLeaderboardVersion();
+
+    @Query("SELECT COUNT(u), MAX(u.updatedAt) FROM User u WHERE u.university.universityId = :universityId")
+    List<Object[]> findUniversityLeaderboardVersion(@Param("universityId") Long universityId);
+
+    // Leaderboard pages as rows of [userId, name, points, badgeName]; the order matches the in-memory index
+    @Query("SELECT u.userId, u.name, u.points, b.name FROM User u LEFT JOIN u.currentBadge b " +
+           "ORDER BY u.points DESC, u.userId ASC")
+    Slice<Object[]> findLeaderboardPage(Pageable pageable);
+
+    @Query("SELECT u.userId, u.name, u.points, b.name FROM User u LEFT JOIN u.currentBadge b " +
+           "WHERE u.university.universityId = :universityId " +
+           "ORDER BY u.points DESC, u.userId ASC")
+    Slice<Object[]> findUniversityLeaderboardPage(@Param("universityId") Long universityId, Pageable pageable);
     
     // Filter by role
     List<User> findByRole(UserRole role);
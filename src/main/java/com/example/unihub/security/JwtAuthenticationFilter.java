@@ -48,6 +48,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
         }
 
+        // SockJS cannot set headers on the handshake, so the WebSocket client passes the token as a query parameter
+        if (jwt == null && request.getRequestURI().startsWith(request.getContextPath() + "/ws")) {
+            jwt = request.getParameter("token");
+        }
+
         // Extract email from JWT
         if (jwt != null) {
             try {
@@ -0,0 +1,52 @@
+package com.example.unihub.security;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * Authenticates a STOMP session from the JWT in the CONNECT frame's Authorization header.
+ * Clients that could not authenticate the SockJS handshake (no cookie, no ?token=) send the token
+ * there instead; the user set here becomes the session's principal for every later frame.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private final JwtUtil jwtUtil;
+    private final CustomUserDetailsService userDetailsService;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || !StompCommand.CONNECT.equals(accessor.getCommand()) || accessor.getUser() != null) {
+            return message;
+        }
+
+        String authorizationHeader = accessor.getFirstNativeHeader("Authorization");
+        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            return message;
+        }
+        String jwt = authorizationHeader.substring(7);
+
+        // Like the HTTP filter, an invalid token leaves the session anonymous rather than refusing it
+        try {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(jwtUtil.extractUsername(jwt));
+            if (jwtUtil.validateToken(jwt, userDetails)) {
+                accessor.setUser(new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+            }
+        } catch (Exception e) {
+            log.warn("STOMP CONNECT token rejected: {}", e.getMessage());
+        }
+        return message;
+    }
+}
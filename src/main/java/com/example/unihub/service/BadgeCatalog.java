@@ -0,0 +1,110 @@
+package com.example.unihub.service;
+
+import com.example.unihub.model.Badge;
+import com.example.unihub.repository.BadgeRepository;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * In-memory badge thresholds, so resolving the badge for a points total costs no query.
+ * Holds an immutable table sorted by threshold that is swapped as a whole; it is loaded on first
+ * use and reloaded after any badge is inserted, updated or deleted (this class is also the Badge
+ * entity listener). Badges handed out are detached copies without their collections.
+ */
+@Component
+@Slf4j
+public class BadgeCatalog {
+
+    private final BadgeRepository badgeRepository;
+    private volatile Table table;
+
+    public BadgeCatalog(@Lazy BadgeRepository badgeRepository) {
+        this.badgeRepository = badgeRepository;
+    }
+
+    /**
+     * Highest badge whose threshold is at or below the points, or null if none qualifies
+     */
+    public Badge resolve(int points) {
+        Table current = table();
+        int index = Arrays.binarySearch(current.thresholds, points);
+        if (index < 0) {
+            // Insertion point minus one is the last threshold below the points
+            index = -index - 2;
+        } else {
+            // Several badges may share a threshold; take the last, as ORDER BY threshold DESC LIMIT 1 would
+            while (index + 1 < current.thresholds.length && current.thresholds[index + 1] == points) {
+                index++;
+            }
+        }
+        return index >= 0 ? current.badges.get(index) : null;
+    }
+
+    /**
+     * Every badge, lowest threshold first
+     */
+    public List<Badge> all() {
+        return table().badges;
+    }
+
+    public void reload() {
+        List<Badge> badges = badgeRepository.findAllByOrderByPointsThresholdAsc().stream()
+                .map(BadgeCatalog::copy)
+                .toList();
+        int[] thresholds = badges.stream().mapToInt(Badge::getPointsThreshold).toArray();
+        table = new Table(thresholds, badges);
+        log.info("Loaded {} badge thresholds", badges.size());
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void onBadgeChanged(Badge badge) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload();
+                }
+            });
+        } else {
+            table = null;
+        }
+    }
+
+    private Table table() {
+        Table current = table;
+        if (current == null) {
+            synchronized (this) {
+                if (table == null) {
+                    reload();
+                }
+                current = table;
+            }
+        }
+        return current;
+    }
+
+    private static Badge copy(Badge badge) {
+        Badge copy = new Badge();
+        copy.setBadgeId(badge.getBadgeId());
+        copy.setName(badge.getName());
+        copy.setDescription(badge.getDescription());
+        copy.setPointsThreshold(badge.getPointsThreshold());
+        copy.setCreatedAt(badge.getCreatedAt());
+        copy.setUpdatedAt(badge.getUpdatedAt());
+        return copy;
+    }
+
+    private record Table(int[] thresholds, List<Badge> badges) {
+    }
+}
@@ -8,7 +8,6 @@ import com.example.unihub.exception.ResourceNotFoundException;
 import com.example.unihub.model.Blog;
 import com.example.unihub.model.Notification;
 import com.example.unihub.model.User;
-import com.example.unihub.repository.BlogReportRepository;
 import com.example.unihub.repository.BlogRepository;
 import com.example.unihub.repository.NotificationRepository;
 import lombok.RequiredArgsConstructor;
@@ -25,9 +24,9 @@ import java.util.List;
 public class BlogService {
 
     private final BlogRepository blogRepository;
-    private final BlogReportRepository blogReportRepository;
     private final NotificationRepository notificationRepository;
     private final GamificationService gamificationService;
+    private final GamificationOutboxService gamificationOutboxService;
 
     /**
      * Create a new blog post
@@ -135,7 +134,6 @@ public class BlogService {
             blogs = blogRepository.findAll();
         }
 
-        applyReportCounts(blogs);
         return sortByCreatedAtDesc(blogs);
     }
 
@@ -143,10 +141,8 @@ public class BlogService {
      * Get blog by ID
      */
     public Blog getBlogById(Long blogId) {
-        Blog blog = blogRepository.findById(blogId)
+        return blogRepository.findById(blogId)
             .orElseThrow(() -> new ResourceNotFoundException("Blog", "id", blogId));
-        applyReportCount(blog);
-        return blog;
     }
 
     /**
@@ -170,8 +166,8 @@ public class BlogService {
         int points = author.getRole() == UserRole.STUDENT ? 30 : 50;
         
         // Award points through gamification service
-        gamificationService.awardPoints(
-            author,
+        gamificationOutboxService.award(
+            author.getUserId(),
             points,
             "BLOG",
             blogId,
@@ -222,7 +218,6 @@ public class BlogService {
      */
     public List<Blog> getBlogsByAuthor(Long authorId) {
         List<Blog> blogs = blogRepository.findByAuthorUserId(authorId);
-        applyReportCounts(blogs);
         return sortByCreatedAtDesc(blogs);
     }
 
@@ -231,7 +226,6 @@ public class BlogService {
      */
     public List<Blog> getPendingBlogs() {
         List<Blog> blogs = blogRepository.findByStatus(BlogStatus.PENDING);
-        applyReportCounts(blogs);
         return sortByCreatedAtDesc(blogs);
     }
 
@@ -271,21 +265,4 @@ public class BlogService {
         blogs.sort(Comparator.comparing(Blog::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder())).reversed());
         return blogs;
     }
-
-    private void applyReportCounts(List<Blog> blogs) {
-        if (blogs == null) {
-            return;
-        }
-        for (Blog blog : blogs) {
-            applyReportCount(blog);
-        }
-    }
-
-    private void applyReportCount(Blog blog) {
-        if (blog == null || blog.getBlogId() == null) {
-            return;
-        }
-        long count = blogReportRepository.countByBlogBlogId(blog.getBlogId());
-        blog.setReportCount(count);
-    }
 }
@@ -0,0 +1,124 @@
+package com.example.unihub.service;
+
+import com.example.unihub.dto.MessageResponse;
+import com.example.unihub.repository.ConversationParticipantRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches conversation membership keyed by (conversationId, userId), together with the member's
+ * name and email so a new message can be assembled without loading the sender.
+ * Only confirmed memberships are cached; entries expire after a TTL and are evicted whenever
+ * participants or the user change, both immediately and again after the changing transaction commits.
+ */
+@Component
+public class ChatMembershipCache {
+
+    private final ConversationParticipantRepository participantRepository;
+    private final long ttlMs;
+    private final int maxEntries;
+
+    private final Map<Key, Member> members = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ChatMembershipCache(ConversationParticipantRepository participantRepository,
+                               @Value("${app.chat.membership-cache.ttl-ms:600000}") long ttlMs,
+                               @Value("${app.chat.membership-cache.max-entries:100000}") int maxEntries) {
+        this.participantRepository = participantRepository;
+        this.ttlMs = ttlMs;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Sender summary for a member of the conversation
+     * @throws RuntimeException "Not a participant" if the user is not in the conversation
+     */
+    public MessageResponse.UserSummary requireMember(Long conversationId, Long userId) {
+        Member member = lookup(conversationId, userId);
+        if (member == null) {
+            throw new RuntimeException("Not a participant");
+        }
+        MessageResponse.UserSummary summary = new MessageResponse.UserSummary();
+        summary.setUserId(userId);
+        summary.setName(member.name());
+        summary.setEmail(member.email());
+        return summary;
+    }
+
+    public boolean isMember(Long conversationId, Long userId) {
+        return lookup(conversationId, userId) != null;
+    }
+
+    public void evict(Long conversationId, Long userId) {
+        Key key = new Key(conversationId, userId);
+        evictNowAndAfterCommit(() -> members.remove(key));
+    }
+
+    public void evictUser(Long userId) {
+        evictNowAndAfterCommit(() -> members.keySet().removeIf(key -> key.userId().equals(userId)));
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("entries", members.size());
+        metrics.put("hits", hits.get());
+        metrics.put("misses", misses.get());
+        return metrics;
+    }
+
+    private Member lookup(Long conversationId, Long userId) {
+        Key key = new Key(conversationId, userId);
+        long now = System.currentTimeMillis();
+        Member cached = members.get(key);
+        if (cached != null && cached.expiresAt() > now) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+
+        List<Object[]> rows = participantRepository.findMemberSummary(conversationId, userId);
+        if (rows.isEmpty()) {
+            members.remove(key);
+            return null;
+        }
+        if (members.size() >= maxEntries) {
+            members.values().removeIf(m -> m.expiresAt() <= now);
+            if (members.size() >= maxEntries) {
+                members.clear();
+            }
+        }
+        Object[] row = rows.get(0);
+        Member member = new Member((String) row[0], (String) row[1], now + ttlMs);
+        members.put(key, member);
+        return member;
+    }
+
+    // A reader inside the changing transaction could re-cache the old state before commit,
+    // so evict again once the change is visible to everyone
+    private void evictNowAndAfterCommit(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private record Key(Long conversationId, Long userId) {
+    }
+
+    private record Member(String name, String email, long expiresAt) {
+    }
+}
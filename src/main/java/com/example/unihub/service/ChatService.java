@@ -6,9 +6,11 @@ import com.example.unihub.model.*;
 import com.example.unihub.repository.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,13 +22,18 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ChatService {
 
+    private static final int MAX_HISTORY_LIMIT = 100;
+    private static final int DEFAULT_SEARCH_LIMIT = 50;
+
     private final ConversationRepository conversationRepository;
     private final ConversationParticipantRepository participantRepository;
     private final MessageRepository messageRepository;
     private final MessageReactionRepository reactionRepository;
-    private final MessageReadReceiptRepository readReceiptRepository;
     private final UserRepository userRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final MessageResponseAssembler messageResponseAssembler;
+    private final WebSocketEventPublisher eventPublisher;
+    private final ChatMembershipCache membershipCache;
+    private final ReadStateBuffer readStateBuffer;
 
     @Transactional
     public ConversationResponse createConversation(CreateConversationRequest request, Long currentUserId) {
@@ -38,7 +45,7 @@ public class ChatService {
             Optional<Conversation> existing = conversationRepository
                     .findDirectConversation(currentUserId, request.getParticipantIds().get(0));
             if (existing.isPresent()) {
-                return buildConversationResponse(existing.get(), currentUserId);
+                return buildConversationResponses(List.of(existing.get()), currentUserId).get(0);
             }
         }
 
@@ -62,7 +69,7 @@ public class ChatService {
             }
         }
 
-        return buildConversationResponse(conversation, currentUserId);
+        return buildConversationResponses(List.of(conversation), currentUserId).get(0);
     }
 
     private void addParticipant(Conversation conversation, User user, boolean isAdmin) {
@@ -71,37 +78,52 @@ public class ChatService {
         participant.setUser(user);
         participant.setIsAdmin(isAdmin);
         participantRepository.save(participant);
+        membershipCache.evict(conversation.getConversationId(), user.getUserId());
     }
 
     @Transactional(readOnly = true)
     public List<ConversationResponse> getUserConversations(Long userId) {
-        try {
-            List<Conversation> conversations = conversationRepository.findByUserId(userId);
-            return conversations.stream()
-                    .map(c -> buildConversationResponse(c, userId))
-                    .collect(Collectors.toList());
-        } catch (Exception e) {
-            // Return empty list if no conversations or error
-            return new ArrayList<>();
+        return getUserConversations(userId, null, null, null);
+    }
+
+    /**
+     * Inbox page for a user, newest activity first.
+     * Pass the updatedAt/conversationId of the last item seen as the cursor to get the next page.
+     * The limit is clamped to 1..MAX_HISTORY_LIMIT; with no cursor and no limit every conversation
+     * is returned, as before the inbox was paginated.
+     */
+    @Transactional(readOnly = true)
+    public List<ConversationResponse> getUserConversations(Long userId, LocalDateTime before, Long beforeId, Integer limit) {
+        if (before == null && limit == null) {
+            try {
+                return buildConversationResponses(conversationRepository.findInbox(userId, Pageable.unpaged()), userId);
+            } catch (Exception e) {
+                // Return empty list if no conversations or error
+                return new ArrayList<>();
+            }
         }
+
+        Pageable pageable = PageRequest.of(0, Math.max(1, Math.min(limit != null ? limit : MAX_HISTORY_LIMIT, MAX_HISTORY_LIMIT)));
+        List<Conversation> conversations = before == null
+                ? conversationRepository.findInbox(userId, pageable)
+                : conversationRepository.findInboxBefore(userId, before,
+                        beforeId != null ? beforeId : Long.MAX_VALUE, pageable);
+        return buildConversationResponses(conversations, userId);
     }
 
+    /**
+     * Membership and the sender summary come from the membership cache, and the conversation and
+     * sender are only referenced by ID, so a cached sender costs the message insert, the inbox
+     * timestamp bump, the unread counter update and the unread fan-out query.
+     */
     @Transactional
     public MessageResponse sendMessage(SendMessageRequest request, Long senderId) {
-        User sender = userRepository.findById(senderId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Conversation conversation = conversationRepository.findById(request.getConversationId())
-                .orElseThrow(() -> new RuntimeException("Conversation not found"));
-
-        // Verify sender is participant
-        participantRepository.findByConversationConversationIdAndUserUserId(
-                conversation.getConversationId(), senderId)
-                .orElseThrow(() -> new RuntimeException("Not a participant"));
+        Long conversationId = request.getConversationId();
+        MessageResponse.UserSummary sender = membershipCache.requireMember(conversationId, senderId);
 
         Message message = new Message();
-        message.setConversation(conversation);
-        message.setSender(sender);
+        message.setConversation(conversationRepository.getReferenceById(conversationId));
+        message.setSender(userRepository.getReferenceById(senderId));
         message.setContent(request.getContent());
         message.setType(request.getType() != null ? request.getType() : MessageType.TEXT);
         message.setFileUrl(request.getFileUrl());
@@ -116,13 +138,16 @@ public class ChatService {
         message = messageRepository.save(message);
 
         // Update conversation timestamp
-        conversation.setUpdatedAt(LocalDateTime.now());
-        conversationRepository.save(conversation);
+        conversationRepository.touch(conversationId, LocalDateTime.now());
 
-        MessageResponse response = buildMessageResponse(message);
+        // Bump every other participant's unread counter in a single statement
+        participantRepository.incrementUnreadCounts(conversationId, senderId);
+
+        MessageResponse response = messageResponseAssembler.toNewMessageResponse(message, sender);
 
         // Send via WebSocket
-        messagingTemplate.convertAndSend("/topic/conversation/" + conversation.getConversationId(), response);
+        eventPublisher.publish("/topic/conversation/" + conversationId, response);
+        sendUnreadCounts(conversationId, senderId);
 
         return response;
     }
@@ -130,28 +155,41 @@ public class ChatService {
     @Transactional(readOnly = true)
     public Page<MessageResponse> getMessages(Long conversationId, Long userId, int page, int size) {
         // Verify user is participant
-        participantRepository.findByConversationConversationIdAndUserUserId(conversationId, userId)
-                .orElseThrow(() -> new RuntimeException("Not a participant"));
+        membershipCache.requireMember(conversationId, userId);
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<Message> messages = messageRepository
-                .findByConversationConversationIdAndIsDeletedFalseOrderByCreatedAtDesc(conversationId, pageable);
+        Page<Message> messages = messageRepository.findPageWithSenders(conversationId, pageable);
 
-        return messages.map(this::buildMessageResponse);
+        List<MessageResponse> responses = messageResponseAssembler.toResponses(messages.getContent());
+        return new PageImpl<>(responses, messages.getPageable(), messages.getTotalElements());
     }
 
-    @Transactional
-    public void markAsRead(Long conversationId, Long userId) {
-        ConversationParticipant participant = participantRepository
-                .findByConversationConversationIdAndUserUserId(conversationId, userId)
-                .orElseThrow(() -> new RuntimeException("Not a participant"));
+    /**
+     * Cursor-based history: returns up to {@code limit} messages older than {@code before}
+     * (or the newest ones when {@code before} is null). Cost is the same at any depth.
+     */
+    @Transactional(readOnly = true)
+    public Slice<MessageResponse> getMessageHistory(Long conversationId, Long userId, Long before, int limit) {
+        membershipCache.requireMember(conversationId, userId);
 
-        participant.setLastReadAt(LocalDateTime.now());
-        participantRepository.save(participant);
+        Pageable pageable = PageRequest.of(0, Math.max(1, Math.min(limit, MAX_HISTORY_LIMIT)));
+        Slice<Message> messages = before == null
+                ? messageRepository.findHistory(conversationId, pageable)
+                : messageRepository.findHistoryBefore(conversationId, before, pageable);
+
+        List<MessageResponse> responses = messageResponseAssembler.toResponses(messages.getContent());
+        return new SliceImpl<>(responses, messages.getPageable(), messages.hasNext());
+    }
+
+    /**
+     * Records the read in the write-behind buffer; the row update and the read-receipt broadcast
+     * to other participants happen on the buffer's next flush.
+     */
+    public void markAsRead(Long conversationId, Long userId) {
+        membershipCache.requireMember(conversationId, userId);
+        readStateBuffer.record(conversationId, userId, LocalDateTime.now());
 
-        // Notify others
-        messagingTemplate.convertAndSend("/topic/conversation/" + conversationId + "/read",
-                Map.of("userId", userId, "readAt", LocalDateTime.now()));
+        sendUnreadCount(userId, conversationId, 0L);
     }
 
     @Transactional
@@ -167,8 +205,9 @@ public class ChatService {
         message.setIsEdited(true);
         message = messageRepository.save(message);
 
-        MessageResponse response = buildMessageResponse(message);
-        messagingTemplate.convertAndSend("/topic/conversation/" + message.getConversation().getConversationId() + "/edit", response);
+        MessageResponse response = messageResponseAssembler.toResponse(message);
+        eventPublisher.publishCoalesced("/topic/conversation/" + message.getConversation().getConversationId() + "/edit",
+                messageId, response);
 
         return response;
     }
@@ -181,13 +220,23 @@ public class ChatService {
         if (!message.getSender().getUserId().equals(userId)) {
             throw new RuntimeException("Not authorized");
         }
+        if (Boolean.TRUE.equals(message.getIsDeleted())) {
+            // Already counted out of everyone's unread totals
+            return;
+        }
 
         message.setIsDeleted(true);
         message.setContent(null);
         messageRepository.save(message);
 
-        messagingTemplate.convertAndSend("/topic/conversation/" + message.getConversation().getConversationId() + "/delete",
+        Long conversationId = message.getConversation().getConversationId();
+        int affected = participantRepository.decrementUnreadCounts(conversationId, userId, message.getCreatedAt());
+
+        eventPublisher.publish("/topic/conversation/" + conversationId + "/delete",
                 Map.of("messageId", messageId));
+        if (affected > 0) {
+            sendUnreadCounts(conversationId, userId);
+        }
     }
 
     @Transactional
@@ -211,131 +260,164 @@ public class ChatService {
             reactionRepository.save(reaction);
         }
 
-        MessageResponse response = buildMessageResponse(message);
-        messagingTemplate.convertAndSend("/topic/conversation/" + message.getConversation().getConversationId() + "/reaction", response);
+        MessageResponse response = messageResponseAssembler.toResponse(message);
+        eventPublisher.publishCoalesced("/topic/conversation/" + message.getConversation().getConversationId() + "/reaction",
+                messageId, response);
     }
 
+    /**
+     * Search for the conversation search endpoint, which matched substrings before full-text search.
+     * Every word of the query matches as a word prefix ("hel" finds "hello"); at most
+     * DEFAULT_SEARCH_LIMIT hits are returned.
+     */
     @Transactional(readOnly = true)
     public List<MessageResponse> searchMessages(Long conversationId, String query, Long userId) {
-        participantRepository.findByConversationConversationIdAndUserUserId(conversationId, userId)
-                .orElseThrow(() -> new RuntimeException("Not a participant"));
+        membershipCache.requireMember(conversationId, userId);
 
-        List<Message> messages = messageRepository.searchMessages(conversationId, query);
-        return messages.stream().map(this::buildMessageResponse).collect(Collectors.toList());
+        String tsquery = toPrefixQuery(query);
+        if (tsquery.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Pageable pageable = PageRequest.of(0, DEFAULT_SEARCH_LIMIT);
+        return toSearchResults(messageRepository.searchPrefix(userId, conversationId, tsquery, pageable), pageable)
+                .getContent().stream()
+                .map(MessageSearchResult::getMessage)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Ranked full-text search with highlighted snippets.
+     * Searches one conversation when {@code conversationId} is given, otherwise all of the user's conversations.
+     */
+    @Transactional(readOnly = true)
+    public Slice<MessageSearchResult> search(Long userId, Long conversationId, String query, int page, int size) {
+        if (conversationId != null) {
+            membershipCache.requireMember(conversationId, userId);
+        }
+
+        Pageable pageable = PageRequest.of(page, Math.max(1, Math.min(size, MAX_HISTORY_LIMIT)));
+        if (query == null || query.isBlank()) {
+            return new SliceImpl<>(new ArrayList<>(), pageable, false);
+        }
+
+        return toSearchResults(messageRepository.searchFullText(userId, conversationId, query.trim(), pageable), pageable);
+    }
+
+    // 'term':* for every word of the query, ANDed; words are split the way the 'simple' parser
+    // splits content, so the terms need no further escaping
+    static String toPrefixQuery(String query) {
+        if (query == null) {
+            return "";
+        }
+        return Arrays.stream(query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .map(term -> "'" + term + "':*")
+                .collect(Collectors.joining(" & "));
+    }
+
+    private Slice<MessageSearchResult> toSearchResults(Slice<MessageRepository.SearchHit> hits, Pageable pageable) {
+        if (hits.isEmpty()) {
+            return new SliceImpl<>(new ArrayList<>(), pageable, false);
+        }
+
+        List<Long> messageIds = hits.getContent().stream()
+                .map(MessageRepository.SearchHit::getMessageId)
+                .collect(Collectors.toList());
+        Map<Long, MessageResponse> responsesById = messageResponseAssembler
+                .toResponses(messageRepository.findAllWithSendersByIdIn(messageIds)).stream()
+                .collect(Collectors.toMap(MessageResponse::getMessageId, m -> m));
+
+        // Keep the rank order of the search hits
+        List<MessageSearchResult> results = hits.getContent().stream()
+                .filter(hit -> responsesById.containsKey(hit.getMessageId()))
+                .map(hit -> new MessageSearchResult(responsesById.get(hit.getMessageId()), hit.getSnippet(), hit.getRank()))
+                .collect(Collectors.toList());
+        return new SliceImpl<>(results, pageable, hits.hasNext());
     }
 
     @Transactional
     public void deleteConversationForUser(Long conversationId, Long userId) {
-        ConversationParticipant participant = participantRepository
-                .findByConversationConversationIdAndUserUserId(conversationId, userId)
-                .orElseThrow(() -> new RuntimeException("Not a participant"));
-
         // Mark as hidden instead of deleting
-        participant.setIsHidden(true);
-        participantRepository.save(participant);
+        if (participantRepository.hideForUser(conversationId, userId) == 0) {
+            throw new RuntimeException("Not a participant");
+        }
     }
 
-    private ConversationResponse buildConversationResponse(Conversation conversation, Long currentUserId) {
-        ConversationResponse response = new ConversationResponse();
-        response.setConversationId(conversation.getConversationId());
-        response.setIsGroup(conversation.getIsGroup());
-        response.setGroupName(conversation.getGroupName());
-        response.setGroupAvatar(conversation.getGroupAvatar());
-        response.setCreatedAt(conversation.getCreatedAt());
-        response.setUpdatedAt(conversation.getUpdatedAt());
-
-        try {
-            List<ConversationParticipant> participants = participantRepository
-                    .findByConversationConversationId(conversation.getConversationId());
-
-            response.setParticipants(participants.stream().map(p -> {
-                ConversationResponse.ParticipantInfo info = new ConversationResponse.ParticipantInfo();
-                info.setUserId(p.getUser().getUserId());
-                info.setName(p.getUser().getName());
-                info.setEmail(p.getUser().getEmail());
-                info.setIsAdmin(p.getIsAdmin());
-                info.setLastReadAt(p.getLastReadAt());
-                return info;
-            }).collect(Collectors.toList()));
-
-            // Get last message
-            Page<Message> lastMessages = messageRepository
-                    .findByConversationConversationIdAndIsDeletedFalseOrderByCreatedAtDesc(
-                            conversation.getConversationId(), PageRequest.of(0, 1));
-            if (!lastMessages.isEmpty()) {
-                response.setLastMessage(buildMessageResponse(lastMessages.getContent().get(0)));
-            }
-
-            // Get unread count
-            Long unreadCount = participantRepository.countUnreadMessages(conversation.getConversationId(), currentUserId);
-            response.setUnreadCount(unreadCount != null ? unreadCount : 0L);
-        } catch (Exception e) {
-            // Set defaults if error
-            response.setParticipants(new ArrayList<>());
-            response.setUnreadCount(0L);
+    /**
+     * Push the current unread counters of everyone but the given user, so clients can update badges without refetching
+     */
+    private void sendUnreadCounts(Long conversationId, Long excludedUserId) {
+        for (Object[] row : participantRepository.findUnreadCountsExcludingUser(conversationId, excludedUserId)) {
+            sendUnreadCount((Long) row[0], conversationId, row[1] != null ? (Long) row[1] : 0L);
         }
+    }
 
-        return response;
+    private void sendUnreadCount(Long userId, Long conversationId, Long unreadCount) {
+        eventPublisher.publishCoalesced("/topic/chat-unread/" + userId, conversationId,
+                Map.of("conversationId", conversationId, "unreadCount", unreadCount));
     }
 
-    private MessageResponse buildMessageResponse(Message message) {
-        MessageResponse response = new MessageResponse();
-        response.setMessageId(message.getMessageId());
-        response.setConversationId(message.getConversation().getConversationId());
-        response.setContent(message.getContent());
-        response.setType(message.getType());
-        response.setFileUrl(message.getFileUrl());
-        response.setFileName(message.getFileName());
-        response.setFileSize(message.getFileSize());
-        response.setIsEdited(message.getIsEdited());
-        response.setIsDeleted(message.getIsDeleted());
-        response.setCreatedAt(message.getCreatedAt());
-        response.setUpdatedAt(message.getUpdatedAt());
-
-        MessageResponse.UserSummary sender = new MessageResponse.UserSummary();
-        sender.setUserId(message.getSender().getUserId());
-        sender.setName(message.getSender().getName());
-        sender.setEmail(message.getSender().getEmail());
-        response.setSender(sender);
-
-        if (message.getReplyToMessage() != null) {
-            MessageResponse.MessageSummary replySummary = new MessageResponse.MessageSummary();
-            replySummary.setMessageId(message.getReplyToMessage().getMessageId());
-            replySummary.setContent(message.getReplyToMessage().getContent());
-            MessageResponse.UserSummary replySender = new MessageResponse.UserSummary();
-            replySender.setUserId(message.getReplyToMessage().getSender().getUserId());
-            replySender.setName(message.getReplyToMessage().getSender().getName());
-            replySender.setEmail(message.getReplyToMessage().getSender().getEmail());
-            replySummary.setSender(replySender);
-            response.setReplyToMessage(replySummary);
+    /**
+     * Builds inbox entries for a set of conversations with a fixed number of queries:
+     * participants (which carry the unread counters) and last messages (plus their
+     * reactions and receipts) are each loaded for all conversations at once.
+     */
+    private List<ConversationResponse> buildConversationResponses(List<Conversation> conversations, Long currentUserId) {
+        if (conversations.isEmpty()) {
+            return new ArrayList<>();
         }
 
-        // Reactions
-        List<MessageReaction> reactions = reactionRepository.findByMessageMessageId(message.getMessageId());
-        Map<String, List<MessageResponse.UserSummary>> reactionMap = reactions.stream()
-                .collect(Collectors.groupingBy(
-                        MessageReaction::getEmoji,
-                        Collectors.mapping(r -> {
-                            MessageResponse.UserSummary u = new MessageResponse.UserSummary();
-                            u.setUserId(r.getUser().getUserId());
-                            u.setName(r.getUser().getName());
-                            u.setEmail(r.getUser().getEmail());
-                            return u;
-                        }, Collectors.toList())
-                ));
-        response.setReactions(reactionMap);
-
-        // Read receipts
-        List<MessageReadReceipt> receipts = readReceiptRepository.findByMessageMessageId(message.getMessageId());
-        List<MessageResponse.UserSummary> readBy = receipts.stream().map(r -> {
-            MessageResponse.UserSummary u = new MessageResponse.UserSummary();
-            u.setUserId(r.getUser().getUserId());
-            u.setName(r.getUser().getName());
-            u.setEmail(r.getUser().getEmail());
-            return u;
+        List<Long> conversationIds = conversations.stream()
+                .map(Conversation::getConversationId)
+                .collect(Collectors.toList());
+
+        Map<Long, List<ConversationParticipant>> participantsByConversation = participantRepository
+                .findByConversationIdsWithUser(conversationIds).stream()
+                .collect(Collectors.groupingBy(p -> p.getConversation().getConversationId()));
+
+        List<Message> lastMessages = messageRepository.findLastMessages(conversationIds);
+        List<MessageResponse> lastMessageResponses = messageResponseAssembler.toResponses(lastMessages);
+        Map<Long, MessageResponse> lastMessageByConversation = lastMessageResponses.stream()
+                .collect(Collectors.toMap(MessageResponse::getConversationId, m -> m));
+
+        return conversations.stream().map(conversation -> {
+            ConversationResponse response = new ConversationResponse();
+            response.setConversationId(conversation.getConversationId());
+            response.setIsGroup(conversation.getIsGroup());
+            response.setGroupName(conversation.getGroupName());
+            response.setGroupAvatar(conversation.getGroupAvatar());
+            response.setCreatedAt(conversation.getCreatedAt());
+            response.setUpdatedAt(conversation.getUpdatedAt());
+
+            List<ConversationParticipant> participants = participantsByConversation
+                    .getOrDefault(conversation.getConversationId(), List.of());
+
+            response.setParticipants(participants.stream()
+                    .map(p -> {
+                        ConversationResponse.ParticipantInfo info = new ConversationResponse.ParticipantInfo();
+                        info.setUserId(p.getUser().getUserId());
+                        info.setName(p.getUser().getName());
+                        info.setEmail(p.getUser().getEmail());
+                        info.setIsAdmin(p.getIsAdmin());
+                        info.setLastReadAt(p.getLastReadAt());
+                        return info;
+                    }).collect(Collectors.toList()));
+
+            MessageResponse lastMessage = lastMessageByConversation.get(conversation.getConversationId());
+            response.setLastMessage(lastMessage);
+            response.setUnreadCount(participants.stream()
+                    .filter(p -> p.getUser().getUserId().equals(currentUserId))
+                    .map(ConversationParticipant::getUnreadCount)
+                    .filter(Objects::nonNull)
+                    .findFirst()
+                    .orElse(0L));
+
+            // A read that is still buffered has not reached the counter yet
+            LocalDateTime pendingReadAt = readStateBuffer.pendingReadAt(conversation.getConversationId(), currentUserId);
+            if (pendingReadAt != null && (lastMessage == null || !lastMessage.getCreatedAt().isAfter(pendingReadAt))) {
+                response.setUnreadCount(0L);
+            }
+            return response;
         }).collect(Collectors.toList());
-        response.setReadBy(readBy);
-
-        return response;
     }
 }
@@ -0,0 +1,199 @@
+package com.example.unihub.service;
+
+import com.example.unihub.enums.EventStatus;
+import com.example.unihub.model.Event;
+import com.example.unihub.repository.EventRepository;
+import com.example.unihub.util.RankTree;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory ranking of approved events by participant count, global and per university.
+ * Seeded from the maintained events.participant_count column and kept current by the services
+ * that add or remove participants or change an event's status; changes made inside a transaction
+ * are applied after it commits. A null universityId means the global ranking throughout.
+ */
+@Component
+@Slf4j
+public class EventLeaderboardIndex {
+
+    private final EventRepository eventRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Standing> standings = new HashMap<>();
+    private RankTree global = new RankTree();
+    private final Map<Long, RankTree> byUniversity = new HashMap<>();
+    private volatile boolean loaded;
+
+    public EventLeaderboardIndex(EventRepository eventRepository) {
+        this.eventRepository = eventRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        // Counters of rows written before the column existed, or by paths outside the services, are realigned once
+        int fixed = eventRepository.recountParticipants();
+        if (fixed > 0) {
+            log.info("Recounted participants for {} events", fixed);
+        }
+        rebuild();
+    }
+
+    /**
+     * Reload every approved event from the events table
+     */
+    public void rebuild() {
+        List<Object[]> rows = eventRepository.findEventLeaderboardStandings();
+        lock.writeLock().lock();
+        try {
+            standings.clear();
+            byUniversity.clear();
+            global = new RankTree();
+            for (Object[] row : rows) {
+                insert((Long) row[0], (Long) row[1], row[2] != null ? (Integer) row[2] : 0);
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Event leaderboard index loaded {} events", rows.size());
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Track the event if it is approved and drop it otherwise; call after any status change
+     */
+    public void update(Event event) {
+        Long eventId = event.getEventId();
+        if (event.getStatus() != EventStatus.APPROVED) {
+            remove(eventId);
+            return;
+        }
+        Long universityId = event.getUniversity() != null ? event.getUniversity().getUniversityId() : null;
+        int count = event.getParticipantCount() != null ? event.getParticipantCount() : 0;
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                // An event already ranked keeps its live count; the entity's copy may predate recent joins
+                Standing old = standings.get(eventId);
+                delete(eventId);
+                insert(eventId, universityId, old != null ? old.count : count);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Apply a participant count change already written to the event row (EventRepository.reserveSlot/releaseSlot)
+     */
+    public void adjust(Long eventId, int delta) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                Standing old = standings.get(eventId);
+                if (old != null) {
+                    delete(eventId);
+                    insert(eventId, old.universityId, Math.max(0, old.count + delta));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(Long eventId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                delete(eventId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Ids of the top events, most participants first
+     */
+    public List<Long> top(Long universityId, int limit) {
+        lock.readLock().lock();
+        try {
+            RankTree tree = universityId == null ? global : byUniversity.get(universityId);
+            if (tree == null) {
+                return List.of();
+            }
+            List<Long> result = new ArrayList<>();
+            int end = Math.min(tree.size(), limit);
+            for (int rank = 0; rank < end; rank++) {
+                result.add(tree.idAt(rank));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Participant count the index holds for the event, or -1 if it is not ranked
+     */
+    public int countOf(Long eventId) {
+        lock.readLock().lock();
+        try {
+            Standing standing = standings.get(eventId);
+            return standing == null ? -1 : standing.count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insert(Long eventId, Long universityId, int count) {
+        standings.put(eventId, new Standing(universityId, count));
+        global.insert(eventId, count);
+        if (universityId != null) {
+            byUniversity.computeIfAbsent(universityId, id -> new RankTree()).insert(eventId, count);
+        }
+    }
+
+    private void delete(Long eventId) {
+        Standing old = standings.remove(eventId);
+        if (old == null) {
+            return;
+        }
+        global.remove(eventId, old.count);
+        if (old.universityId != null) {
+            RankTree tree = byUniversity.get(old.universityId);
+            tree.remove(eventId, old.count);
+            if (tree.size() == 0) {
+                byUniversity.remove(old.universityId);
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record Standing(Long universityId, int count) {
+    }
+}
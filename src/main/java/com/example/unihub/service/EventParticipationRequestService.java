@@ -26,6 +26,7 @@ public class EventParticipationRequestService {
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
     private final EventParticipantRepository participantRepository;
+    private final EventLeaderboardIndex eventLeaderboardIndex;
 
     @Transactional
     public ParticipationRequestResponseDTO submitRequest(Long eventId, Long userId, ParticipationRequestDTO dto) {
@@ -81,7 +82,10 @@ public class EventParticipationRequestService {
                 .orElseThrow(() -> new RuntimeException("Approver not found"));
 
         Event event = request.getEvent();
-        
+        if (eventRepository.reserveSlot(event.getEventId(), request.getRequestedRole().name()) == 0) {
+            throw new RuntimeException("No more slots available for " + request.getRequestedRole() + " role");
+        }
+
         // Calculate points based on role
         int points = 0;
         switch (request.getRequestedRole()) {
@@ -103,6 +107,7 @@ public class EventParticipationRequestService {
         participant.setRole(request.getRequestedRole());
         participant.setPointsAwarded(points);
         participantRepository.save(participant);
+        eventLeaderboardIndex.adjust(event.getEventId(), 1);
 
         // Update request
         request.setStatus(RequestStatus.APPROVED);
@@ -22,7 +22,8 @@ public class EventRequestService {
     private final UserRepository userRepository;
     private final NotificationRepository notificationRepository;
     private final EventParticipantRepository participantRepository;
-    private final GamificationService gamificationService;
+    private final GamificationOutboxService gamificationOutboxService;
+    private final EventLeaderboardIndex eventLeaderboardIndex;
 
     @Transactional
     public EventRequest createRequest(Long eventId, Long userId, ParticipantRole role) {
@@ -78,6 +79,10 @@ public class EventRequestService {
         User user = request.getUser();
         ParticipantRole role = request.getRequestedRole();
 
+        if (eventRepository.reserveSlot(event.getEventId(), role.name()) == 0) {
+            throw new IllegalStateException("No more slots available for " + role + " role");
+        }
+
         int points = switch(role) {
             case ORGANIZER -> event.getOrganizerPoints() != null ? event.getOrganizerPoints() : 50;
             case VOLUNTEER -> event.getVolunteerPoints() != null ? event.getVolunteerPoints() : 20;
@@ -90,10 +95,13 @@ public class EventRequestService {
         participant.setRole(role);
         participant.setPointsAwarded(points);
         participantRepository.save(participant);
+        eventLeaderboardIndex.adjust(event.getEventId(), 1);
 
-        // Award points
-        gamificationService.awardPoints(user, points, "EVENT", event.getEventId(),
-            "Joined event '" + event.getTitle() + "' as " + role);
+        // Award points (applied by the outbox consumer); a rejoin after leaving earns nothing
+        if (!gamificationOutboxService.award(user.getUserId(), points, "EVENT_PARTICIPATION", event.getEventId(),
+            "Joined event '" + event.getTitle() + "' as " + role)) {
+            participant.setPointsAwarded(0);
+        }
 
         // Update request status
         request.setStatus("ACCEPTED");
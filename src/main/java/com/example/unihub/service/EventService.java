@@ -1,6 +1,9 @@
 package com.example.unihub.service;
 
 import com.example.unihub.dto.request.CreateEventRequest;
+import com.example.unihub.dto.request.EventFeedFilter;
+import com.example.unihub.dto.response.EventFeedResponse;
+import com.example.unihub.dto.response.EventSummaryResponse;
 import com.example.unihub.enums.EventStatus;
 import com.example.unihub.enums.NotificationType;
 import com.example.unihub.enums.ParticipantRole;
@@ -12,6 +15,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 
 @Service
@@ -19,13 +26,18 @@ import java.util.List;
 @Slf4j
 public class EventService {
 
+    private static final int MAX_FEED_PAGE_SIZE = 100;
+
     private final EventRepository eventRepository;
     private final EventParticipantRepository participantRepository;
-    private final EventReportRepository eventReportRepository;
     private final UserRepository userRepository;
     private final UniversityRepository universityRepository;
     private final NotificationRepository notificationRepository;
     private final GamificationService gamificationService;
+    private final GamificationOutboxService gamificationOutboxService;
+    private final EventLeaderboardIndex eventLeaderboardIndex;
+    private final EventWaitlistService eventWaitlistService;
+    private final NotificationFanoutService notificationFanoutService;
 
     /**
      * Create a new event proposal
@@ -72,6 +84,10 @@ public class EventService {
         if (Boolean.TRUE.equals(request.getCreatorParticipates()) && request.getCreatorRole() != null) {
             try {
                 ParticipantRole role = ParticipantRole.valueOf(request.getCreatorRole());
+                if (eventRepository.reserveSlot(savedEvent.getEventId(), role.name()) == 0) {
+                    log.warn("No {} slot left for creator {} on event {}", role, creator.getUserId(), savedEvent.getEventId());
+                    return savedEvent;
+                }
                 EventParticipant participant = new EventParticipant();
                 participant.setEvent(savedEvent);
                 participant.setUser(creator);
@@ -132,6 +148,10 @@ public class EventService {
         event.setAttendeePoints(request.getAttendeePoints() != null ? request.getAttendeePoints() : 10);
 
         Event updatedEvent = eventRepository.save(event);
+        eventLeaderboardIndex.update(updatedEvent);
+
+        // Raised capacity goes to the waitlists first
+        eventWaitlistService.promoteAll(updatedEvent);
 
         // Notify creator if event was reset to pending
         if (wasApproved) {
@@ -164,18 +184,39 @@ public class EventService {
             events = eventRepository.findAllByOrderByCreatedAtDesc();
         }
 
-        applyReportCounts(events);
         return events;
     }
 
+    /**
+     * One page of the event feed, newest first
+     * @param cursor nextCursor of the previous page, or null for the first page
+     */
+    public EventFeedResponse getEventFeed(EventFeedFilter filter, String cursor, int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_FEED_PAGE_SIZE);
+        LocalDateTime afterCreatedAt = null;
+        Long afterEventId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeCursor(cursor);
+            afterCreatedAt = LocalDateTime.parse(parts[0]);
+            afterEventId = Long.parseLong(parts[1]);
+        }
+
+        // One extra row tells whether another page exists without a count query
+        List<EventSummaryResponse> rows = eventRepository.findFeedPage(filter, afterCreatedAt, afterEventId, limit + 1);
+        if (rows.size() <= limit) {
+            return new EventFeedResponse(rows, null);
+        }
+        List<EventSummaryResponse> page = rows.subList(0, limit);
+        EventSummaryResponse last = page.get(limit - 1);
+        return new EventFeedResponse(List.copyOf(page), encodeCursor(last.getCreatedAt(), last.getEventId()));
+    }
+
     /**
      * Get event by ID
      */
     public Event getEventById(Long eventId) {
-        Event event = eventRepository.findById(eventId)
+        return eventRepository.findById(eventId)
                 .orElseThrow(() -> new ResourceNotFoundException("Event", "id", eventId));
-        applyReportCount(event);
-        return event;
     }
 
     /**
@@ -199,15 +240,8 @@ public class EventService {
             throw new IllegalStateException("You have already joined this event");
         }
 
-        // Check capacity limits
-        long currentCount = participantRepository.countByEventEventIdAndRole(eventId, role);
-        Integer maxCapacity = switch (role) {
-            case ORGANIZER -> event.getMaxOrganizers();
-            case VOLUNTEER -> event.getMaxVolunteers();
-            case ATTENDEE -> event.getMaxAttendees();
-        };
-
-        if (maxCapacity != null && currentCount >= maxCapacity) {
+        // Reserve a slot; the conditional increment is what enforces capacity under concurrent joins
+        if (eventRepository.reserveSlot(eventId, role.name()) == 0) {
             throw new IllegalStateException("No more slots available for " + role + " role");
         }
 
@@ -225,15 +259,20 @@ public class EventService {
         participant.setRole(role);
         participant.setPointsAwarded(points);
         participantRepository.save(participant);
+        eventLeaderboardIndex.adjust(eventId, 1);
 
-        // Award EVENT_PARTICIPATION points
-        gamificationService.awardPoints(
-                user,
+        // Award EVENT_PARTICIPATION points (applied by the outbox consumer)
+        boolean awarded = gamificationOutboxService.award(
+                user.getUserId(),
                 points,
                 "EVENT_PARTICIPATION",
                 eventId,
                 "Joined event '" + event.getTitle() + "' as " + role
         );
+        if (!awarded) {
+            // Rejoining after leaving earns nothing, so leaving again costs nothing
+            participant.setPointsAwarded(0);
+        }
 
         log.info("User {} successfully joined event {} as {} and earned {} points", userId, eventId, role, points);
     }
@@ -257,29 +296,33 @@ public class EventService {
         int pointsAwarded = participant.getPointsAwarded() != null ? participant.getPointsAwarded() : 0;
         int penalty = pointsAwarded * 2;
         participantRepository.delete(participant);
-
-        // Deduct points through gamification service (only if penalty > 0)
-        if (penalty > 0) {
-            gamificationService.deductPoints(
-                    user,
-                    penalty,
-                    "EVENT_LEAVE",
-                    eventId,
-                    "Left event '" + event.getTitle() + "' (penalty applied)"
-            );
-        }
+        eventRepository.releaseSlot(eventId, participant.getRole().name());
+        eventLeaderboardIndex.adjust(eventId, -1);
+
+        // The freed slot goes to the head of the role's waitlist, if any
+        eventWaitlistService.promote(event, participant.getRole());
+
+        // Deduct points through the gamification outbox (only if penalty > 0); the outbox skips a
+        // second EVENT_LEAVE for the same event, in which case no penalty is announced either
+        boolean penalized = penalty > 0 && gamificationOutboxService.deduct(
+                user.getUserId(),
+                penalty,
+                "EVENT_LEAVE",
+                eventId,
+                "Left event '" + event.getTitle() + "' (penalty applied)"
+        );
 
         // Notify user
         Notification notification = new Notification();
         notification.setUser(user);
-        notification.setMessage(penalty > 0 
+        notification.setMessage(penalized
                 ? "You left event '" + event.getTitle() + "'. Penalty: -" + penalty + " points"
                 : "You left event '" + event.getTitle() + "'");
         notification.setType(NotificationType.POINTS_UPDATE);
         notification.setIsRead(false);
         notificationRepository.save(notification);
 
-        log.info("User {} left event {} with penalty of {} points", userId, eventId, penalty);
+        log.info("User {} left event {} with penalty of {} points", userId, eventId, penalized ? penalty : 0);
     }
 
     /**
@@ -298,13 +341,17 @@ public class EventService {
 
         event.setStatus(EventStatus.APPROVED);
         eventRepository.save(event);
+        eventLeaderboardIndex.update(event);
+
+        // Slots freed while the event waited for re-approval go to the waitlists
+        eventWaitlistService.promoteAll(event);
 
         User creator = event.getCreator();
 
         // Award EVENT_CREATION points (separate from participation)
         int creationPoints = creator.getRole() == com.example.unihub.enums.UserRole.STUDENT ? 30 : 50;
-        gamificationService.awardPoints(
-                creator,
+        gamificationOutboxService.award(
+                creator.getUserId(),
                 creationPoints,
                 "EVENT_CREATION",
                 eventId,
@@ -322,16 +369,18 @@ public class EventService {
                             case ATTENDEE -> event.getAttendeePoints() != null ? event.getAttendeePoints() : 10;
                         };
 
-                        participant.setPointsAwarded(participationPoints);
-                        participantRepository.save(participant);
-
-                        gamificationService.awardPoints(
-                                creator,
+                        // Participation already awarded for this event is not awarded again
+                        if (!gamificationOutboxService.award(
+                                creator.getUserId(),
                                 participationPoints,
                                 "EVENT_PARTICIPATION",
                                 eventId,
                                 "Joined event '" + event.getTitle() + "' as " + participant.getRole()
-                        );
+                        )) {
+                            return;
+                        }
+                        participant.setPointsAwarded(participationPoints);
+                        participantRepository.save(participant);
 
                         log.info("Creator {} awarded {} participation points as {}",
                                 creator.getUserId(), participationPoints, participant.getRole());
@@ -363,6 +412,8 @@ public class EventService {
         Event event = getEventById(eventId);
         event.setStatus(EventStatus.CANCELLED);
         eventRepository.save(event);
+        eventLeaderboardIndex.remove(eventId);
+        eventWaitlistService.clear(eventId);
 
         // Notify creator
         Notification notification = new Notification();
@@ -386,22 +437,15 @@ public class EventService {
         Event event = getEventById(eventId);
         event.setStatus(EventStatus.CANCELLED);
         eventRepository.save(event);
+        eventLeaderboardIndex.remove(eventId);
+        eventWaitlistService.clear(eventId);
 
-        // Notify all participants
-        List<EventParticipant> participants = participantRepository.findByEventEventId(eventId);
-        for (EventParticipant participant : participants) {
-            Notification notification = new Notification();
-            notification.setUser(participant.getUser());
-            notification.setMessage("Event '" + event.getTitle() + "' has been cancelled. Reason: " + reason);
-            notification.setType(NotificationType.EVENT_UPDATE);
-            notification.setLinkUrl("/events/" + eventId);
-            notification.setIsRead(false);
-            notificationRepository.save(notification);
-
-            gamificationService.sendDashboardUpdate(participant.getUser().getUserId());
-        }
+        // Notify all participants in chunks once this commits
+        notificationFanoutService.enqueueForEventParticipants(eventId,
+                "Event '" + event.getTitle() + "' has been cancelled. Reason: " + reason,
+                NotificationType.EVENT_UPDATE, "/events/" + eventId);
 
-        log.info("Event {} cancelled and {} participants notified", eventId, participants.size());
+        log.info("Event {} cancelled, notifying {} participants", eventId, event.getParticipantCount());
     }
 
     /**
@@ -409,7 +453,6 @@ public class EventService {
      */
     public List<Event> getEventsByCreator(Long userId) {
         List<Event> events = eventRepository.findByCreatorUserIdOrderByCreatedAtDesc(userId);
-        applyReportCounts(events);
         return events;
     }
 
@@ -427,21 +470,23 @@ public class EventService {
         return participantRepository.findByEventEventId(eventId);
     }
 
-    private void applyReportCounts(List<Event> events) {
-        if (events == null) {
-            return;
-        }
-        for (Event event : events) {
-            applyReportCount(event);
-        }
+    private static String encodeCursor(LocalDateTime createdAt, Long eventId) {
+        String raw = createdAt + "|" + eventId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
     }
 
-    private void applyReportCount(Event event) {
-        if (event == null || event.getEventId() == null) {
-            return;
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
         }
-        long count = eventReportRepository.countByEventEventId(event.getEventId());
-        event.setReportCount(count);
     }
 
     /**
@@ -475,8 +520,11 @@ public class EventService {
             log.info("Deleted {} participants for event {}", participants.size(), eventId);
         }
 
+        eventWaitlistService.clear(eventId);
+
         // Delete the event
         eventRepository.delete(event);
+        eventLeaderboardIndex.remove(eventId);
         log.info("Event {} deleted successfully by user {}", eventId, currentUser.getUserId());
     }
 }
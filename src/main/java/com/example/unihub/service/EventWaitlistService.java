@@ -0,0 +1,220 @@
+package com.example.unihub.service;
+
+import com.example.unihub.dto.response.WaitlistStatusResponse;
+import com.example.unihub.enums.EventStatus;
+import com.example.unihub.enums.NotificationType;
+import com.example.unihub.enums.ParticipantRole;
+import com.example.unihub.exception.ResourceNotFoundException;
+import com.example.unihub.model.*;
+import com.example.unihub.repository.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * FIFO waitlists for full event roles. Every change takes the event row lock first, the same row
+ * joins and leaves update to reserve and release slots, so a freed slot always goes to the head
+ * of the queue before anyone else can take it. Positions of one event and role are kept
+ * consecutive, so a user's place is read from their entry and the queue bounds alone.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EventWaitlistService {
+
+    private final EventRepository eventRepository;
+    private final EventParticipantRepository participantRepository;
+    private final EventWaitlistRepository waitlistRepository;
+    private final EventWaitlistQueueRepository queueRepository;
+    private final UserRepository userRepository;
+    private final NotificationRepository notificationRepository;
+    private final GamificationService gamificationService;
+    private final GamificationOutboxService gamificationOutboxService;
+    private final EventLeaderboardIndex eventLeaderboardIndex;
+
+    /**
+     * Queue for a role of an event, joining right away if a slot is free.
+     * Queuing again returns the existing place, so clients can retry safely.
+     */
+    @Transactional
+    public WaitlistStatusResponse joinWaitlist(Long eventId, Long userId, ParticipantRole role) {
+        Event event = lockEvent(eventId);
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+
+        if (event.getStatus() != EventStatus.APPROVED) {
+            throw new IllegalStateException("Cannot join an event that is not approved");
+        }
+        if (participantRepository.existsByEventEventIdAndUserUserId(eventId, userId)) {
+            throw new IllegalStateException("You have already joined this event");
+        }
+
+        Optional<EventWaitlistEntry> existing = waitlistRepository.findByEventEventIdAndUserUserId(eventId, userId);
+        if (existing.isPresent()) {
+            return toStatus(existing.get());
+        }
+
+        EventWaitlistQueue queue = queueRepository.findById(new EventWaitlistQueue.QueueId(eventId, role))
+                .orElseGet(() -> new EventWaitlistQueue(eventId, role, 0L, 0L));
+        EventWaitlistEntry entry = new EventWaitlistEntry();
+        entry.setEvent(event);
+        entry.setUser(user);
+        entry.setRole(role);
+        entry.setQueuePosition(queue.getTailPosition());
+        queue.setTailPosition(queue.getTailPosition() + 1);
+        waitlistRepository.save(entry);
+        queueRepository.save(queue);
+
+        // Admits the new entry straight away if the role still has room
+        promote(event, role);
+        if (!waitlistRepository.existsById(entry.getEntryId())) {
+            return new WaitlistStatusResponse(eventId, role, true, null, null);
+        }
+        log.info("User {} queued for event {} as {}", userId, eventId, role);
+        return toStatus(entry);
+    }
+
+    /**
+     * Place of a user in an event's waitlist
+     */
+    @Transactional(readOnly = true)
+    public WaitlistStatusResponse getStatus(Long eventId, Long userId) {
+        Optional<EventWaitlistEntry> entry = waitlistRepository.findByEventEventIdAndUserUserId(eventId, userId);
+        if (entry.isPresent()) {
+            return toStatus(entry.get());
+        }
+        return participantRepository.findByEventEventIdAndUserUserId(eventId, userId)
+                .map(participant -> new WaitlistStatusResponse(eventId, participant.getRole(), true, null, null))
+                .orElseThrow(() -> new IllegalStateException("You are not on the waitlist for this event"));
+    }
+
+    @Transactional
+    public void leaveWaitlist(Long eventId, Long userId) {
+        lockEvent(eventId);
+        EventWaitlistEntry entry = waitlistRepository.findByEventEventIdAndUserUserId(eventId, userId)
+                .orElseThrow(() -> new IllegalStateException("You are not on the waitlist for this event"));
+        EventWaitlistQueue queue = queueRepository.findById(new EventWaitlistQueue.QueueId(eventId, entry.getRole()))
+                .orElseThrow(() -> new IllegalStateException("Waitlist queue missing for event " + eventId));
+
+        waitlistRepository.delete(entry);
+        waitlistRepository.flush();
+        waitlistRepository.moveUpBehind(eventId, entry.getRole(), entry.getQueuePosition());
+        queue.setTailPosition(queue.getTailPosition() - 1);
+        queueRepository.save(queue);
+        log.info("User {} left the waitlist of event {}", userId, eventId);
+    }
+
+    /**
+     * Admit queued users of every role while slots are free, e.g. after capacity was raised
+     * @return number of users promoted
+     */
+    @Transactional
+    public int promoteAll(Event event) {
+        int promoted = 0;
+        for (ParticipantRole role : ParticipantRole.values()) {
+            promoted += promote(event, role);
+        }
+        return promoted;
+    }
+
+    /**
+     * Admit queued users of one role, head first, while the role has free slots.
+     * Nobody is admitted unless the event is APPROVED, the same rule joinEvent applies.
+     * @return number of users promoted
+     */
+    @Transactional
+    public int promote(Event event, ParticipantRole role) {
+        if (event.getStatus() != EventStatus.APPROVED) {
+            return 0;
+        }
+        Long eventId = event.getEventId();
+        lockEvent(eventId);
+        Optional<EventWaitlistQueue> found = queueRepository.findById(new EventWaitlistQueue.QueueId(eventId, role));
+        if (found.isEmpty()) {
+            return 0;
+        }
+        EventWaitlistQueue queue = found.get();
+        int promoted = 0;
+        while (queue.getHeadPosition() < queue.getTailPosition()) {
+            Optional<EventWaitlistEntry> head = waitlistRepository.findByEventEventIdAndRoleAndQueuePosition(
+                    eventId, role, queue.getHeadPosition());
+            if (head.isPresent()
+                    && !participantRepository.existsByEventEventIdAndUserUserId(eventId, head.get().getUser().getUserId())) {
+                if (eventRepository.reserveSlot(eventId, role.name()) == 0) {
+                    break;
+                }
+                admit(event, head.get().getUser(), role);
+                promoted++;
+            }
+            // Users who joined in another role meanwhile just leave the queue
+            head.ifPresent(waitlistRepository::delete);
+            queue.setHeadPosition(queue.getHeadPosition() + 1);
+        }
+        queueRepository.save(queue);
+        if (promoted > 0) {
+            log.info("Promoted {} users from the {} waitlist of event {}", promoted, role, eventId);
+        }
+        return promoted;
+    }
+
+    /**
+     * Drop every waitlist of an event that can no longer be joined
+     */
+    @Transactional
+    public void clear(Long eventId) {
+        waitlistRepository.deleteByEventId(eventId);
+        queueRepository.deleteByEventId(eventId);
+    }
+
+    // The slot is already reserved by the caller
+    private void admit(Event event, User user, ParticipantRole role) {
+        int points = switch (role) {
+            case ORGANIZER -> event.getOrganizerPoints() != null ? event.getOrganizerPoints() : 50;
+            case VOLUNTEER -> event.getVolunteerPoints() != null ? event.getVolunteerPoints() : 20;
+            case ATTENDEE -> event.getAttendeePoints() != null ? event.getAttendeePoints() : 10;
+        };
+
+        EventParticipant participant = new EventParticipant();
+        participant.setEvent(event);
+        participant.setUser(user);
+        participant.setRole(role);
+        participant.setPointsAwarded(points);
+        participantRepository.save(participant);
+        eventLeaderboardIndex.adjust(event.getEventId(), 1);
+
+        // Award EVENT_PARTICIPATION points (applied by the outbox consumer)
+        if (!gamificationOutboxService.award(user.getUserId(), points, "EVENT_PARTICIPATION", event.getEventId(),
+                "Joined event '" + event.getTitle() + "' as " + role + " from the waitlist")) {
+            // Rejoining after leaving earns nothing, so leaving again costs nothing
+            participant.setPointsAwarded(0);
+        }
+
+        Notification notification = new Notification();
+        notification.setUser(user);
+        notification.setMessage("A spot opened up: you are now " + role + " at '" + event.getTitle() + "'");
+        notification.setType(NotificationType.EVENT_UPDATE);
+        notification.setLinkUrl("/events/" + event.getEventId());
+        notification.setIsRead(false);
+        notificationRepository.save(notification);
+
+        gamificationService.sendDashboardUpdate(user.getUserId());
+        log.info("User {} promoted from the waitlist of event {} as {}", user.getUserId(), event.getEventId(), role);
+    }
+
+    private WaitlistStatusResponse toStatus(EventWaitlistEntry entry) {
+        Long eventId = entry.getEvent().getEventId();
+        EventWaitlistQueue queue = queueRepository.findById(new EventWaitlistQueue.QueueId(eventId, entry.getRole()))
+                .orElseThrow(() -> new IllegalStateException("Waitlist queue missing for event " + eventId));
+        return new WaitlistStatusResponse(eventId, entry.getRole(), false,
+                entry.getQueuePosition() - queue.getHeadPosition() + 1,
+                queue.getTailPosition() - queue.getHeadPosition());
+    }
+
+    private Event lockEvent(Long eventId) {
+        return eventRepository.findByIdForUpdate(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Event", "id", eventId));
+    }
+}
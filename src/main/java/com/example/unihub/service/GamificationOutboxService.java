@@ -0,0 +1,171 @@
+package com.example.unihub.service;
+
+import com.example.unihub.model.GamificationOutboxEntry;
+import com.example.unihub.model.User;
+import com.example.unihub.repository.GamificationOutboxRepository;
+import com.example.unihub.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Transactional outbox for gamification.
+ * Services record a points change with award or deduct inside their own transaction; that only
+ * inserts an outbox row, and only once per (sourceType, sourceId, userId). A scheduled consumer
+ * then applies pending rows in batches through GamificationService: points, points log, badge
+ * changes, notifications and dashboard pushes. Each row is claimed in the same transaction that
+ * applies it, so it is applied exactly once even with several consumers or after a crash.
+ * If a batch fails, its users are retried one at a time so a bad row cannot block the others.
+ */
+@Service
+@Slf4j
+public class GamificationOutboxService {
+
+    private final GamificationOutboxRepository outboxRepository;
+    private final UserRepository userRepository;
+    private final GamificationService gamificationService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public GamificationOutboxService(GamificationOutboxRepository outboxRepository,
+                                     UserRepository userRepository,
+                                     GamificationService gamificationService,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${app.gamification.outbox.batch-size:200}") int batchSize,
+                                     @Value("${app.gamification.outbox.max-attempts:5}") int maxAttempts) {
+        this.outboxRepository = outboxRepository;
+        this.userRepository = userRepository;
+        this.gamificationService = gamificationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Record points to award once the outbox consumer runs
+     * @return false if this source already awarded or deducted points for the user
+     */
+    public boolean award(Long userId, int points, String sourceType, Long sourceId, String description) {
+        return enqueue(userId, points, sourceType, sourceId, description);
+    }
+
+    /**
+     * Record a penalty to deduct once the outbox consumer runs; points never drop below zero
+     * @return false if this source already awarded or deducted points for the user
+     */
+    public boolean deduct(Long userId, int points, String sourceType, Long sourceId, String description) {
+        return enqueue(userId, -points, sourceType, sourceId, description);
+    }
+
+    private boolean enqueue(Long userId, int points, String sourceType, Long sourceId, String description) {
+        // A single conditional insert, so concurrent duplicates become no-ops instead of a constraint violation
+        if (outboxRepository.insertIfAbsent(userId, sourceType, sourceId, points, description, LocalDateTime.now()) == 0) {
+            duplicates.incrementAndGet();
+            log.info("Skipping duplicate {} points for user {} from {} {}", points, userId, sourceType, sourceId);
+            return false;
+        }
+        enqueued.incrementAndGet();
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.gamification.outbox.poll-interval-ms:500}")
+    public void scheduledProcess() {
+        processPending();
+    }
+
+    /**
+     * Apply one batch of pending entries
+     * @return number of entries applied
+     */
+    public synchronized int processPending() {
+        List<GamificationOutboxEntry> batch = outboxRepository.findPending(maxAttempts, PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        // Entries of one user stay in outbox order so clamping at zero behaves as if applied live
+        Map<Long, List<GamificationOutboxEntry>> byUser = batch.stream()
+                .collect(Collectors.groupingBy(GamificationOutboxEntry::getUserId, LinkedHashMap::new, Collectors.toList()));
+
+        int count;
+        try {
+            count = transactionTemplate.execute(status -> applyAll(byUser));
+        } catch (Exception e) {
+            log.warn("Gamification outbox batch of {} entries failed, retrying per user: {}", batch.size(), e.getMessage());
+            count = 0;
+            for (Map.Entry<Long, List<GamificationOutboxEntry>> group : byUser.entrySet()) {
+                count += applyGroupAlone(group.getKey(), group.getValue());
+            }
+        }
+        applied.addAndGet(count);
+        return count;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("pending", outboxRepository.countByProcessedAtIsNull());
+        metrics.put("enqueued", enqueued.get());
+        metrics.put("duplicates", duplicates.get());
+        metrics.put("applied", applied.get());
+        metrics.put("failures", failures.get());
+        return metrics;
+    }
+
+    private int applyAll(Map<Long, List<GamificationOutboxEntry>> byUser) {
+        Map<Long, User> users = userRepository.findAllById(byUser.keySet()).stream()
+                .collect(Collectors.toMap(User::getUserId, Function.identity()));
+        int count = 0;
+        for (Map.Entry<Long, List<GamificationOutboxEntry>> group : byUser.entrySet()) {
+            count += apply(users.get(group.getKey()), group.getValue());
+        }
+        return count;
+    }
+
+    private int applyGroupAlone(Long userId, List<GamificationOutboxEntry> entries) {
+        try {
+            return transactionTemplate.execute(status -> apply(userRepository.findById(userId).orElse(null), entries));
+        } catch (Exception e) {
+            failures.incrementAndGet();
+            log.error("Gamification outbox entries for user {} failed: {}", userId, e.getMessage());
+            List<Long> ids = entries.stream().map(GamificationOutboxEntry::getOutboxId).toList();
+            String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.recordFailure(ids, error));
+            return 0;
+        }
+    }
+
+    private int apply(User user, List<GamificationOutboxEntry> entries) {
+        LocalDateTime now = LocalDateTime.now();
+        List<GamificationOutboxEntry> claimed = new ArrayList<>();
+        for (GamificationOutboxEntry entry : entries) {
+            if (outboxRepository.markProcessed(entry.getOutboxId(), now) == 1) {
+                claimed.add(entry);
+            }
+        }
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+        if (user == null) {
+            // The user was deleted after the change was recorded; nothing left to apply it to
+            log.warn("Dropping {} gamification outbox entries for missing user {}", claimed.size(), entries.get(0).getUserId());
+            return 0;
+        }
+        gamificationService.applyPointChanges(user, claimed);
+        return claimed.size();
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -20,10 +21,13 @@ public class GamificationService {
 
     private final UserRepository userRepository;
     private final PointsLogRepository pointsLogRepository;
-    private final BadgeRepository badgeRepository;
+    private final BadgeCatalog badgeCatalog;
     private final UserBadgeRepository userBadgeRepository;
     private final NotificationRepository notificationRepository;
     private final SimpMessagingTemplate messagingTemplate;
+    private final LeaderboardIndex leaderboardIndex;
+    private final WindowedLeaderboard windowedLeaderboard;
+    private final PointsHistoryService pointsHistoryService;
 
     /**
      * Award points to a user and check for badge promotion
@@ -32,26 +36,14 @@ public class GamificationService {
     public void awardPoints(User user, int points, String sourceType, Long sourceId, String description) {
         log.info("Awarding {} points to user {} from source {}", points, user.getUserId(), sourceType);
         
-        // 1. Update user points
-        int oldPoints = user.getPoints();
-        user.setPoints(oldPoints + points);
-        userRepository.save(user);
-        
-        // 2. Create points log entry
-        PointsLog pointsLog = new PointsLog();
-        pointsLog.setUser(user);
-        pointsLog.setSourceType(sourceType);
-        pointsLog.setSourceId(sourceId);
-        pointsLog.setPoints(points);
-        pointsLog.setDescription(description);
-        pointsLogRepository.save(pointsLog);
+        // 1-2. Update user points and create points log entry
+        applyPoints(user, points, sourceType, sourceId, description);
         
         // 3. Check for badge promotion
         checkAndPromoteBadge(user);
         
-        // 4. Send WebSocket update for leaderboard
-        sendLeaderboardUpdate();
-        // 5. Send dashboard update for instant UI refresh
+        // 4. Send dashboard update for instant UI refresh; the leaderboard update is
+        //    broadcast by LeaderboardBroadcaster once the index applies the change
         sendDashboardUpdate(user.getUserId());
     }
 
@@ -62,27 +54,54 @@ public class GamificationService {
     public void deductPoints(User user, int points, String sourceType, Long sourceId, String description) {
         log.info("Deducting {} points from user {} for source {}", points, user.getUserId(), sourceType);
         
-        // 1. Update user points (ensure not negative)
-        int oldPoints = user.getPoints();
-        user.setPoints(Math.max(0, oldPoints - points));
-        userRepository.save(user);
+        // 1-2. Update user points (never below zero) and create negative points log entry
+        applyPoints(user, -points, sourceType, sourceId, description);
+        
+        // 3. Check for badge demotion
+        checkAndDemoteBadge(user);
         
-        // 2. Create negative points log entry
+        // 4. Send dashboard update for instant UI refresh; the leaderboard update is
+        //    broadcast by LeaderboardBroadcaster once the index applies the change
+        sendDashboardUpdate(user.getUserId());
+    }
+
+    /**
+     * Apply a run of point changes for one user in order, then check the badge and push the
+     * dashboard update once for the whole run. Used by the gamification outbox consumer.
+     */
+    @Transactional
+    public void applyPointChanges(User user, List<GamificationOutboxEntry> changes) {
+        int before = user.getPoints();
+        for (GamificationOutboxEntry change : changes) {
+            applyPoints(user, change.getPoints(), change.getSourceType(), change.getSourceId(), change.getDescription());
+        }
+        if (user.getPoints() >= before) {
+            checkAndPromoteBadge(user);
+        } else {
+            checkAndDemoteBadge(user);
+        }
+        sendDashboardUpdate(user.getUserId());
+    }
+
+    /**
+     * Apply a points change as one atomic increment and log it in the same transaction.
+     * The user's in-memory points are replaced with the committed-to value so the badge checks
+     * that follow see every concurrent award, not just the copy the caller loaded.
+     */
+    private void applyPoints(User user, int delta, String sourceType, Long sourceId, String description) {
+        userRepository.addPoints(user.getUserId(), delta);
+        user.setPoints(userRepository.findPointsById(user.getUserId()));
+        leaderboardIndex.refreshAfterCommit(user.getUserId());
+
         PointsLog pointsLog = new PointsLog();
         pointsLog.setUser(user);
         pointsLog.setSourceType(sourceType);
         pointsLog.setSourceId(sourceId);
-        pointsLog.setPoints(-points); // Negative value
+        pointsLog.setPoints(delta);
         pointsLog.setDescription(description);
         pointsLogRepository.save(pointsLog);
-        
-        // 3. Check for badge demotion
-        checkAndDemoteBadge(user);
-        
-        // 4. Send WebSocket update for leaderboard
-        sendLeaderboardUpdate();
-        // 5. Send dashboard update for instant UI refresh
-        sendDashboardUpdate(user.getUserId());
+        pointsHistoryService.record(pointsLog);
+        windowedLeaderboard.record(user.getUserId(), delta, pointsLog.getCreatedAt());
     }
 
     /**
@@ -91,9 +110,7 @@ public class GamificationService {
     @Transactional
     public void checkAndPromoteBadge(User user) {
         // Find the highest badge user qualifies for based on current points
-        Badge newBadge = badgeRepository
-            .findTopByPointsThresholdLessThanEqualOrderByPointsThresholdDesc(user.getPoints())
-            .orElse(null);
+        Badge newBadge = badgeCatalog.resolve(user.getPoints());
         
         if (newBadge == null) {
             return; // No badge qualifies
@@ -110,7 +127,7 @@ public class GamificationService {
             
             // Update user's current badge
             user.setCurrentBadge(newBadge);
-            userRepository.save(user);
+            userRepository.updateCurrentBadge(user.getUserId(), newBadge);
             
             // Record badge in user_badges history (if not already recorded)
             if (!userBadgeRepository.existsByUserUserIdAndBadgeBadgeId(user.getUserId(), newBadge.getBadgeId())) {
@@ -149,9 +166,7 @@ public class GamificationService {
         // If user's points dropped below current badge threshold
         if (user.getPoints() < currentBadge.getPointsThreshold()) {
             // Find the highest badge user now qualifies for
-            Badge newBadge = badgeRepository
-                .findTopByPointsThresholdLessThanEqualOrderByPointsThresholdDesc(user.getPoints())
-                .orElse(null);
+            Badge newBadge = badgeCatalog.resolve(user.getPoints());
             
             if (newBadge == null || !newBadge.getBadgeId().equals(currentBadge.getBadgeId())) {
                 log.info("Demoting user {} from badge {} to badge {}", 
@@ -160,7 +175,7 @@ public class GamificationService {
                     newBadge != null ? newBadge.getName() : "none");
                 
                 user.setCurrentBadge(newBadge);
-                userRepository.save(user);
+                userRepository.updateCurrentBadge(user.getUserId(), newBadge);
                 
                 // Notify user of demotion
                 Notification notification = new Notification();
@@ -190,18 +205,6 @@ public class GamificationService {
         log.info("Sent badge promotion WebSocket message to user {}", userId);
     }
 
-    /**
-     * Send leaderboard update notification via WebSocket
-     */
-    public void sendLeaderboardUpdate() {
-        Map<String, Object> payload = new HashMap<>();
-        payload.put("type", "LEADERBOARD_UPDATE");
-        payload.put("timestamp", LocalDateTime.now());
-        
-        messagingTemplate.convertAndSend("/topic/leaderboard-update", payload);
-        log.debug("Sent leaderboard update WebSocket message");
-    }
-
     /**
      * Send dashboard update notification via WebSocket
      */
@@ -0,0 +1,116 @@
+package com.example.unihub.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Debounced /topic/leaderboard-update broadcasts.
+ * Ranking changes reported by the LeaderboardIndex are collected for one window and sent as a
+ * single delta: the current points and global rank of every user that moved, the users that left
+ * the ranking, and the range of global ranks whose occupants may have shifted. Clients can patch
+ * their view from it; when the window holds more changes than fit in a delta, or the index was
+ * rebuilt, the event is sent with full=true and clients refetch instead.
+ */
+@Component
+@Slf4j
+public class LeaderboardBroadcaster implements LeaderboardIndex.ChangeListener {
+
+    static final String DESTINATION = "/topic/leaderboard-update";
+
+    private final LeaderboardIndex leaderboardIndex;
+    private final WebSocketEventPublisher eventPublisher;
+    private final int maxDeltaSize;
+
+    private final Set<Long> changedUsers = new LinkedHashSet<>();
+    private int firstAffectedRank = Integer.MAX_VALUE;
+    private int lastAffectedRank;
+    private boolean fullRefresh;
+
+    public LeaderboardBroadcaster(LeaderboardIndex leaderboardIndex,
+                                  WebSocketEventPublisher eventPublisher,
+                                  @Value("${app.leaderboard.broadcast.max-delta:200}") int maxDeltaSize) {
+        this.leaderboardIndex = leaderboardIndex;
+        this.eventPublisher = eventPublisher;
+        this.maxDeltaSize = maxDeltaSize;
+        leaderboardIndex.addListener(this);
+    }
+
+    @Override
+    public synchronized void onChange(Long userId, int firstRank, int lastRank) {
+        if (fullRefresh) {
+            return;
+        }
+        changedUsers.add(userId);
+        firstAffectedRank = Math.min(firstAffectedRank, firstRank);
+        lastAffectedRank = Math.max(lastAffectedRank, lastRank);
+        if (changedUsers.size() > maxDeltaSize) {
+            fullRefresh = true;
+            changedUsers.clear();
+        }
+    }
+
+    @Override
+    public synchronized void onRebuild() {
+        fullRefresh = true;
+        changedUsers.clear();
+    }
+
+    @Scheduled(fixedDelayString = "${app.leaderboard.broadcast.window-ms:1000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    /**
+     * Send everything collected since the last flush as one event
+     * @return true if an event was sent
+     */
+    public boolean flush() {
+        List<Long> userIds;
+        boolean full;
+        int firstRank;
+        int lastRank;
+        synchronized (this) {
+            if (!fullRefresh && changedUsers.isEmpty()) {
+                return false;
+            }
+            userIds = new ArrayList<>(changedUsers);
+            full = fullRefresh;
+            firstRank = firstAffectedRank;
+            lastRank = lastAffectedRank;
+            changedUsers.clear();
+            fullRefresh = false;
+            firstAffectedRank = Integer.MAX_VALUE;
+            lastAffectedRank = 0;
+        }
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("type", "LEADERBOARD_UPDATE");
+        payload.put("timestamp", LocalDateTime.now());
+        payload.put("full", full);
+        if (!full) {
+            // Read the standings at flush time so a user that moved several times is sent once, as it is now
+            List<Map<String, Object>> changes = new ArrayList<>();
+            List<Long> removed = new ArrayList<>();
+            for (Long userId : userIds) {
+                LeaderboardIndex.RankedUser standing = leaderboardIndex.find(userId);
+                if (standing == null) {
+                    removed.add(userId);
+                } else {
+                    changes.add(Map.of("userId", userId, "points", standing.points(), "rank", standing.rank()));
+                }
+            }
+            payload.put("changes", changes);
+            payload.put("removed", removed);
+            payload.put("affectedRanks", Map.of("from", firstRank, "to", lastRank));
+        }
+
+        eventPublisher.publish(DESTINATION, payload);
+        log.debug("Sent leaderboard update ({} users, full={})", userIds.size(), full);
+        return true;
+    }
+}
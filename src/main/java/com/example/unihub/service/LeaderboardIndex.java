@@ -0,0 +1,369 @@
+package com.example.unihub.service;
+
+import com.example.unihub.model.User;
+import com.example.unihub.repository.UserRepository;
+import com.example.unihub.util.RankTree;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory member rankings, global and per university, ordered by points descending then user id.
+ * Seeded by LeaderboardSnapshotService once the application is ready and kept current by the
+ * services that change points, universities or users. Changes made inside a transaction are applied after it
+ * commits. A null universityId means the global ranking throughout.
+ */
+@Component
+@Slf4j
+public class LeaderboardIndex {
+
+    private final UserRepository userRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Standing> standings = new HashMap<>();
+    private RankTree global = new RankTree();
+    private final Map<Long, RankTree> byUniversity = new HashMap<>();
+    private volatile boolean loaded;
+
+    // Random per instance so a version from another replica never matches this one
+    private final String epoch = Long.toHexString(new Random().nextLong());
+    private final AtomicLong version = new AtomicLong();
+
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Serializes refreshes of the same user so the last one to run always reads the latest commit
+    private final Object[] refreshLocks = new Object[64];
+
+    public LeaderboardIndex(UserRepository userRepository) {
+        this.userRepository = userRepository;
+        for (int i = 0; i < refreshLocks.length; i++) {
+            refreshLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * Reload every standing from the users table
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        List<Object[]> rows = userRepository.findLeaderboardStandings();
+        restore(rows);
+        log.info("Leaderboard index loaded {} users in {} ms", rows.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Replace every standing with the given [userId, universityId, points] rows
+     */
+    public void restore(List<Object[]> rows) {
+        lock.writeLock().lock();
+        try {
+            standings.clear();
+            byUniversity.clear();
+            global = new RankTree();
+            for (Object[] row : rows) {
+                insert((Long) row[0], (Long) row[1], row[2] != null ? (Integer) row[2] : 0);
+            }
+            loaded = true;
+            version.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        listeners.forEach(ChangeListener::onRebuild);
+    }
+
+    /**
+     * Every standing as [userId, universityId, points] rows, read in one consistent pass
+     */
+    public List<Object[]> exportStandings() {
+        lock.readLock().lock();
+        try {
+            List<Object[]> rows = new ArrayList<>(standings.size());
+            standings.forEach((userId, standing) -> rows.add(new Object[]{userId, standing.universityId, standing.points}));
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuild once the current transaction commits, for bulk changes that bypass the per-user hooks
+     */
+    public void rebuildAfterCommit() {
+        afterCommit(this::rebuild);
+    }
+
+    public void addListener(ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Changes whenever any standing changes; usable as a cache validator for ranking pages
+     */
+    public String getVersionTag() {
+        return epoch + "-" + version.get();
+    }
+
+    public void update(User user) {
+        Long universityId = user.getUniversity() != null ? user.getUniversity().getUniversityId() : null;
+        update(user.getUserId(), universityId, user.getPoints() != null ? user.getPoints() : 0);
+    }
+
+    public void update(Long userId, Long universityId, int points) {
+        afterCommit(() -> {
+            apply(userId, universityId, points);
+            notifyUnlogged(userId);
+        });
+    }
+
+    /**
+     * Re-read the user's committed standing once the current transaction commits.
+     * Use after atomic point changes, where commits of concurrent transactions can finish in any
+     * order and the value seen inside the transaction may already be outdated when it is applied.
+     */
+    public void refreshAfterCommit(Long userId) {
+        afterCommit(() -> {
+            synchronized (refreshLocks[(int) Math.floorMod(userId, (long) refreshLocks.length)]) {
+                List<Object[]> rows = userRepository.findLeaderboardStanding(userId);
+                if (rows.isEmpty()) {
+                    return;
+                }
+                Object[] row = rows.get(0);
+                apply(userId, (Long) row[1], row[2] != null ? (Integer) row[2] : 0);
+            }
+        });
+    }
+
+    public void remove(Long userId) {
+        afterCommit(() -> {
+            int oldRank;
+            int size;
+            lock.writeLock().lock();
+            try {
+                oldRank = globalRank(userId);
+                delete(userId);
+                size = global.size();
+                version.incrementAndGet();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (oldRank >= 0) {
+                notifyChange(userId, oldRank, size);
+            }
+            notifyUnlogged(userId);
+        });
+    }
+
+    /**
+     * Current global standing of the user, or null if the user is not ranked
+     */
+    public RankedUser find(Long userId) {
+        lock.readLock().lock();
+        try {
+            Standing standing = standings.get(userId);
+            if (standing == null) {
+                return null;
+            }
+            return new RankedUser(userId, standing.points, global.rankOf(userId, standing.points) + 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * University the user is ranked under, or null if none or not ranked
+     */
+    public Long universityOf(Long userId) {
+        lock.readLock().lock();
+        try {
+            Standing standing = standings.get(userId);
+            return standing == null ? null : standing.universityId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Page of the ranking starting at a zero-based offset
+     */
+    public List<RankedUser> top(Long universityId, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            RankTree tree = tree(universityId);
+            if (tree == null) {
+                return List.of();
+            }
+            List<RankedUser> result = new ArrayList<>();
+            int end = Math.min(tree.size(), offset + limit);
+            for (int rank = Math.max(0, offset); rank < end; rank++) {
+                result.add(new RankedUser(tree.idAt(rank), (int) tree.scoreAt(rank), rank + 1));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * One-based rank of the user, or -1 if the user is not ranked in that scope
+     */
+    public int rankOf(Long userId, Long universityId) {
+        lock.readLock().lock();
+        try {
+            Standing standing = standings.get(userId);
+            RankTree tree = tree(universityId);
+            if (standing == null || tree == null) {
+                return -1;
+            }
+            int rank = tree.rankOf(userId, standing.points);
+            return rank < 0 ? -1 : rank + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The user plus up to radius neighbours on each side
+     */
+    public List<RankedUser> around(Long userId, Long universityId, int radius) {
+        int rank = rankOf(userId, universityId);
+        if (rank < 0) {
+            return List.of();
+        }
+        int offset = Math.max(0, rank - 1 - radius);
+        return top(universityId, offset, rank + radius - offset);
+    }
+
+    public int size(Long universityId) {
+        lock.readLock().lock();
+        try {
+            RankTree tree = tree(universityId);
+            return tree == null ? 0 : tree.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void apply(Long userId, Long universityId, int points) {
+        int oldRank;
+        int newRank;
+        lock.writeLock().lock();
+        try {
+            // A user entering the ranking shifts everyone from the new position to the end
+            oldRank = globalRank(userId);
+            delete(userId);
+            insert(userId, universityId, points);
+            newRank = globalRank(userId);
+            if (oldRank < 0) {
+                oldRank = global.size() - 1;
+            }
+            version.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        notifyChange(userId, Math.min(oldRank, newRank), Math.max(oldRank, newRank));
+    }
+
+    private int globalRank(Long userId) {
+        Standing standing = standings.get(userId);
+        return standing == null ? -1 : global.rankOf(userId, standing.points);
+    }
+
+    // Zero-based inclusive range of global positions whose occupant may have changed
+    private void notifyChange(Long userId, int firstRank, int lastRank) {
+        for (ChangeListener listener : listeners) {
+            try {
+                listener.onChange(userId, firstRank + 1, lastRank + 1);
+            } catch (Exception e) {
+                log.warn("Leaderboard change listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void notifyUnlogged(Long userId) {
+        for (ChangeListener listener : listeners) {
+            try {
+                listener.onUnloggedChange(userId);
+            } catch (Exception e) {
+                log.warn("Leaderboard change listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void insert(Long userId, Long universityId, int points) {
+        standings.put(userId, new Standing(universityId, points));
+        global.insert(userId, points);
+        if (universityId != null) {
+            byUniversity.computeIfAbsent(universityId, id -> new RankTree()).insert(userId, points);
+        }
+    }
+
+    private void delete(Long userId) {
+        Standing old = standings.remove(userId);
+        if (old == null) {
+            return;
+        }
+        global.remove(userId, old.points);
+        if (old.universityId != null) {
+            RankTree tree = byUniversity.get(old.universityId);
+            tree.remove(userId, old.points);
+            if (tree.size() == 0) {
+                byUniversity.remove(old.universityId);
+            }
+        }
+    }
+
+    private RankTree tree(Long universityId) {
+        return universityId == null ? global : byUniversity.get(universityId);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record Standing(Long universityId, int points) {
+    }
+
+    public record RankedUser(Long userId, int points, int rank) {
+    }
+
+    /**
+     * Notified outside the index lock once a change has been applied
+     */
+    public interface ChangeListener {
+
+        /**
+         * @param firstRank first one-based global position whose occupant may have changed
+         * @param lastRank  last one-based global position whose occupant may have changed
+         */
+        void onChange(Long userId, int firstRank, int lastRank);
+
+        void onRebuild();
+
+        /**
+         * A standing was set or removed by something other than a points log entry: a new or
+         * deleted user, a university change or an admin overwrite
+         */
+        default void onUnloggedChange(Long userId) {
+        }
+    }
+}
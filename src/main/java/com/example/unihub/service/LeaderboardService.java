@@ -1,22 +1,43 @@
 package com.example.unihub.service;
 
+import com.example.unihub.dto.response.LeaderboardEntryResponse;
+import com.example.unihub.enums.EventStatus;
+import com.example.unihub.enums.LeaderboardWindow;
 import com.example.unihub.model.Event;
 import com.example.unihub.model.User;
 import com.example.unihub.repository.EventRepository;
+import com.example.unihub.repository.PointsLogRepository;
 import com.example.unihub.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class LeaderboardService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final UserRepository userRepository;
     private final EventRepository eventRepository;
+    private final PointsLogRepository pointsLogRepository;
+    private final LeaderboardIndex leaderboardIndex;
+    private final EventLeaderboardIndex eventLeaderboardIndex;
+    private final WindowedLeaderboard windowedLeaderboard;
 
     /**
      * Get members leaderboard (ranked by points)
@@ -37,6 +58,73 @@ public class LeaderboardService {
         }
     }
 
+    /**
+     * One page of the members leaderboard as slim entries. ALL_TIME pages are read with
+     * LIMIT/OFFSET in index order; WEEK and MONTH pages come from the rolling window rankings.
+     */
+    public Slice<LeaderboardEntryResponse> getMembersPage(String scope, Long universityId, LeaderboardWindow window,
+                                                          int page, int size) {
+        Long scopeUniversityId = scopeUniversity(scope, universityId);
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+        if (window != LeaderboardWindow.ALL_TIME) {
+            return getWindowPage(window, scopeUniversityId, pageable);
+        }
+        Slice<Object[]> rows = scopeUniversityId == null
+                ? userRepository.findLeaderboardPage(pageable)
+                : userRepository.findUniversityLeaderboardPage(scopeUniversityId, pageable);
+
+        List<LeaderboardEntryResponse> entries = new ArrayList<>();
+        int rank = (int) pageable.getOffset();
+        for (Object[] row : rows.getContent()) {
+            entries.add(new LeaderboardEntryResponse((Long) row[0], (String) row[1], (Integer) row[2], (String) row[3], ++rank));
+        }
+        return new SliceImpl<>(entries, pageable, rows.hasNext());
+    }
+
+    /**
+     * Entity tag for a members page; it changes whenever any standing in the window changes.
+     * ALL_TIME pages are read from the database, so their tag is derived from database state too
+     * and stays valid across replicas; window pages come from this instance's rankings.
+     */
+    public String getMembersPageEtag(String scope, Long universityId, LeaderboardWindow window, int page, int size) {
+        String version = window == LeaderboardWindow.ALL_TIME
+                ? getAllTimeVersion(scopeUniversity(scope, universityId))
+                : windowedLeaderboard.getVersionTag();
+        return "\"" + version + "-" + window + "-" + scope.toUpperCase() + "-" + universityId
+                + "-" + page + "-" + size + "\"";
+    }
+
+    // Every points change is logged and every other edit to a shown row bumps updated_at;
+    // the user count catches deletions
+    private String getAllTimeVersion(Long universityId) {
+        Object[] row = (universityId == null
+                ? userRepository.findLeaderboardVersion()
+                : userRepository.findUniversityLeaderboardVersion(universityId)).get(0);
+        LocalDateTime lastUpdated = (LocalDateTime) row[1];
+        long lastUpdatedMillis = lastUpdated != null ? lastUpdated.toInstant(ZoneOffset.UTC).toEpochMilli() : 0;
+        return pointsLogRepository.findMaxId() + "-" + row[0] + "-" + lastUpdatedMillis;
+    }
+
+    // Points in the entries are those earned within the window
+    private Slice<LeaderboardEntryResponse> getWindowPage(LeaderboardWindow window, Long universityId, Pageable pageable) {
+        List<LeaderboardIndex.RankedUser> ranked = windowedLeaderboard.top(window, universityId,
+                (int) pageable.getOffset(), pageable.getPageSize() + 1);
+        boolean hasNext = ranked.size() > pageable.getPageSize();
+        if (hasNext) {
+            ranked = ranked.subList(0, pageable.getPageSize());
+        }
+        Map<Long, User> users = loadUsers(ranked);
+        List<LeaderboardEntryResponse> entries = ranked.stream()
+                .filter(r -> users.containsKey(r.userId()))
+                .map(r -> {
+                    User user = users.get(r.userId());
+                    return new LeaderboardEntryResponse(user.getUserId(), user.getName(), r.points(),
+                            user.getCurrentBadge() != null ? user.getCurrentBadge().getName() : null, r.rank());
+                })
+                .toList();
+        return new SliceImpl<>(entries, pageable, hasNext);
+    }
+
     /**
      * Get events leaderboard (ranked by participant count)
      * @param scope UNIVERSITY or GLOBAL
@@ -49,10 +137,11 @@ public class LeaderboardService {
             if (universityId == null) {
                 throw new IllegalArgumentException("University ID is required for UNIVERSITY scope");
             }
-            return eventRepository.findTopEventsByParticipantsCountForUniversity(universityId);
+            return eventRepository.findByUniversityUniversityIdAndStatusOrderByParticipantCountDescEventIdAsc(
+                    universityId, EventStatus.APPROVED);
         } else {
             // GLOBAL scope
-            return eventRepository.findTopEventsByParticipantsCount();
+            return eventRepository.findByStatusOrderByParticipantCountDescEventIdAsc(EventStatus.APPROVED);
         }
     }
 
@@ -60,28 +149,82 @@ public class LeaderboardService {
      * Get top N members from leaderboard
      */
     public List<User> getTopMembers(String scope, Long universityId, int limit) {
-        List<User> leaderboard = getMembersLeaderboard(scope, universityId);
-        return leaderboard.stream().limit(limit).toList();
+        if (!leaderboardIndex.isLoaded()) {
+            List<User> leaderboard = getMembersLeaderboard(scope, universityId);
+            return leaderboard.stream().limit(limit).toList();
+        }
+        List<LeaderboardIndex.RankedUser> ranked = leaderboardIndex.top(scopeUniversity(scope, universityId), 0, limit);
+        Map<Long, User> users = loadUsers(ranked);
+        return ranked.stream()
+                .map(r -> users.get(r.userId()))
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     /**
      * Get top N events from leaderboard
      */
     public List<Event> getTopEvents(String scope, Long universityId, int limit) {
-        List<Event> leaderboard = getEventsLeaderboard(scope, universityId);
-        return leaderboard.stream().limit(limit).toList();
+        if (!eventLeaderboardIndex.isLoaded()) {
+            List<Event> leaderboard = getEventsLeaderboard(scope, universityId);
+            return leaderboard.stream().limit(limit).toList();
+        }
+        List<Long> eventIds = eventLeaderboardIndex.top(scopeUniversity(scope, universityId), limit);
+        Map<Long, Event> events = eventRepository.findAllById(eventIds).stream()
+                .collect(Collectors.toMap(Event::getEventId, Function.identity()));
+        return eventIds.stream()
+                .map(events::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     /**
      * Get user's rank in leaderboard
      */
     public int getUserRank(Long userId, String scope, Long universityId) {
-        List<User> leaderboard = getMembersLeaderboard(scope, universityId);
-        for (int i = 0; i < leaderboard.size(); i++) {
-            if (leaderboard.get(i).getUserId().equals(userId)) {
-                return i + 1; // Rank starts from 1
+        if (!leaderboardIndex.isLoaded()) {
+            List<User> leaderboard = getMembersLeaderboard(scope, universityId);
+            for (int i = 0; i < leaderboard.size(); i++) {
+                if (leaderboard.get(i).getUserId().equals(userId)) {
+                    return i + 1; // Rank starts from 1
+                }
+            }
+            return -1; // User not found
+        }
+        return leaderboardIndex.rankOf(userId, scopeUniversity(scope, universityId));
+    }
+
+    /**
+     * Get the user and up to radius members ranked directly above and below them
+     */
+    public List<LeaderboardEntryResponse> getUsersAroundMe(Long userId, String scope, Long universityId, int radius) {
+        List<LeaderboardIndex.RankedUser> ranked = leaderboardIndex.around(userId, scopeUniversity(scope, universityId), radius);
+        Map<Long, User> users = loadUsers(ranked);
+        return ranked.stream()
+                .filter(r -> users.containsKey(r.userId()))
+                .map(r -> {
+                    User user = users.get(r.userId());
+                    return new LeaderboardEntryResponse(r.userId(), user.getName(), r.points(),
+                            user.getCurrentBadge() != null ? user.getCurrentBadge().getName() : null, r.rank());
+                })
+                .toList();
+    }
+
+    // Index key for a scope: the university for UNIVERSITY, null for the global ranking
+    private Long scopeUniversity(String scope, Long universityId) {
+        if ("UNIVERSITY".equalsIgnoreCase(scope)) {
+            if (universityId == null) {
+                throw new IllegalArgumentException("University ID is required for UNIVERSITY scope");
             }
+            return universityId;
         }
-        return -1; // User not found
+        return null;
+    }
+
+    // One query for a page of ranked users
+    private Map<Long, User> loadUsers(List<LeaderboardIndex.RankedUser> ranked) {
+        return userRepository.findAllById(ranked.stream().map(LeaderboardIndex.RankedUser::userId).toList())
+                .stream()
+                .collect(Collectors.toMap(User::getUserId, Function.identity()));
     }
 }
@@ -0,0 +1,190 @@
+package com.example.unihub.service;
+
+import com.example.unihub.repository.PointsLogRepository;
+import com.example.unihub.repository.UserRepository;
+import com.example.unihub.util.LeaderboardSnapshot;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads the members leaderboard at startup and periodically persists it, so a restart does not
+ * rebuild it from a full users scan.
+ * On startup the snapshot file is read and verified, then only users that may have changed since
+ * it was taken are re-read: users created after it, and users with points_log entries past its
+ * watermark. Entries from a short margin before the snapshot are re-read too, since a transaction
+ * can commit a lower points_log id after a higher one is already visible. Changes that leave no
+ * points_log entry (university changes, admin overwrites, deletions) delete the snapshot instead,
+ * so the next start falls back to a full rebuild until a fresh snapshot is written. A missing,
+ * corrupt or unreadable snapshot also falls back to a full rebuild.
+ */
+@Service
+@Slf4j
+public class LeaderboardSnapshotService implements LeaderboardIndex.ChangeListener {
+
+    private final LeaderboardIndex leaderboardIndex;
+    private final UserRepository userRepository;
+    private final PointsLogRepository pointsLogRepository;
+    private final Path path;
+    private final long replayMarginSeconds;
+
+    // Bumped by every change the snapshot on disk cannot account for
+    private final AtomicLong invalidations = new AtomicLong();
+    private volatile long snapshotMaxUserId = -1;
+    private volatile String writtenVersion;
+    private volatile boolean restoring;
+
+    public LeaderboardSnapshotService(LeaderboardIndex leaderboardIndex,
+                                      UserRepository userRepository,
+                                      PointsLogRepository pointsLogRepository,
+                                      @Value("${app.leaderboard.snapshot.path:data/leaderboard.snapshot}") String path,
+                                      @Value("${app.leaderboard.snapshot.replay-margin-seconds:300}") long replayMarginSeconds) {
+        this.leaderboardIndex = leaderboardIndex;
+        this.userRepository = userRepository;
+        this.pointsLogRepository = pointsLogRepository;
+        this.path = path.isBlank() ? null : Path.of(path);
+        this.replayMarginSeconds = replayMarginSeconds;
+        leaderboardIndex.addListener(this);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (path != null && Files.exists(path) && restoreFromSnapshot()) {
+            return;
+        }
+        leaderboardIndex.rebuild();
+        writeSnapshot();
+    }
+
+    /**
+     * Write the current standings if they changed since the last snapshot
+     */
+    @Scheduled(fixedDelayString = "${app.leaderboard.snapshot.interval-ms:300000}",
+               initialDelayString = "${app.leaderboard.snapshot.interval-ms:300000}")
+    public void scheduledSnapshot() {
+        writeSnapshot();
+    }
+
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        writeSnapshot();
+    }
+
+    /**
+     * @return true if a snapshot was written
+     */
+    public synchronized boolean writeSnapshot() {
+        if (path == null || !leaderboardIndex.isLoaded()) {
+            return false;
+        }
+        String version = leaderboardIndex.getVersionTag();
+        if (version.equals(writtenVersion) && Files.exists(path)) {
+            return false;
+        }
+        long start = System.currentTimeMillis();
+        long invalidationsBefore = invalidations.get();
+        // Watermarks are read before the standings so every change they cover is already in the index
+        long pointsLogWatermark = pointsLogRepository.findMaxId();
+        long maxUserId = userRepository.findMaxUserId();
+        List<Object[]> standings = leaderboardIndex.exportStandings();
+        try {
+            new LeaderboardSnapshot(pointsLogWatermark, maxUserId, start, standings).write(path);
+            snapshotMaxUserId = maxUserId;
+            // A change the snapshot missed may have landed while it was written
+            if (invalidations.get() != invalidationsBefore) {
+                deleteSnapshot();
+                return false;
+            }
+            writtenVersion = version;
+            log.info("Leaderboard snapshot of {} users written in {} ms", standings.size(), System.currentTimeMillis() - start);
+            return true;
+        } catch (IOException e) {
+            log.warn("Could not write leaderboard snapshot to {}: {}", path, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void onChange(Long userId, int firstRank, int lastRank) {
+        // Points changes are replayed from points_log
+    }
+
+    @Override
+    public void onRebuild() {
+        if (!restoring) {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void onUnloggedChange(Long userId) {
+        // Users created after the snapshot are re-read on startup anyway
+        if (userId <= snapshotMaxUserId) {
+            invalidate();
+        }
+    }
+
+    private boolean restoreFromSnapshot() {
+        long start = System.currentTimeMillis();
+        LeaderboardSnapshot snapshot;
+        try {
+            snapshot = LeaderboardSnapshot.read(path);
+        } catch (IOException e) {
+            log.warn("Ignoring leaderboard snapshot {}, rebuilding from users: {}", path, e.getMessage());
+            return false;
+        }
+
+        LocalDateTime since = LocalDateTime.ofInstant(Instant.ofEpochMilli(snapshot.getTakenAtMillis()), ZoneId.systemDefault())
+                .minusSeconds(replayMarginSeconds);
+        List<Object[]> changed = userRepository.findLeaderboardStandingsChangedSince(
+                snapshot.getPointsLogWatermark(), snapshot.getMaxUserId(), since);
+        Map<Long, Object[]> merged = new LinkedHashMap<>();
+        for (Object[] row : snapshot.getStandings()) {
+            merged.put((Long) row[0], row);
+        }
+        for (Object[] row : changed) {
+            merged.put((Long) row[0], row);
+        }
+
+        restoring = true;
+        try {
+            leaderboardIndex.restore(new ArrayList<>(merged.values()));
+        } finally {
+            restoring = false;
+        }
+        snapshotMaxUserId = snapshot.getMaxUserId();
+        log.info("Leaderboard index restored {} users from snapshot, {} re-read, in {} ms",
+                snapshot.getStandings().size(), changed.size(), System.currentTimeMillis() - start);
+        return true;
+    }
+
+    private void invalidate() {
+        invalidations.incrementAndGet();
+        writtenVersion = null;
+        deleteSnapshot();
+    }
+
+    private void deleteSnapshot() {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete stale leaderboard snapshot {}: {}", path, e.getMessage());
+        }
+    }
+}
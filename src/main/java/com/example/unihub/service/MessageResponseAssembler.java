@@ -0,0 +1,110 @@
+package com.example.unihub.service;
+
+import com.example.unihub.dto.MessageResponse;
+import com.example.unihub.model.Message;
+import com.example.unihub.model.MessageReaction;
+import com.example.unihub.model.MessageReadReceipt;
+import com.example.unihub.model.User;
+import com.example.unihub.repository.MessageReactionRepository;
+import com.example.unihub.repository.MessageReadReceiptRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Builds {@link MessageResponse} DTOs for a batch of messages.
+ * Reactions and read receipts for the whole batch are loaded with one query each
+ * and grouped in memory, so the cost of a page does not grow with its size.
+ */
+@Component
+@RequiredArgsConstructor
+public class MessageResponseAssembler {
+
+    private final MessageReactionRepository reactionRepository;
+    private final MessageReadReceiptRepository readReceiptRepository;
+
+    public MessageResponse toResponse(Message message) {
+        return toResponses(List.of(message)).get(0);
+    }
+
+    /**
+     * Response for a message that was just inserted: it cannot have reactions or receipts yet,
+     * and the sender summary is supplied by the caller so the sender does not have to be loaded.
+     */
+    public MessageResponse toNewMessageResponse(Message message, MessageResponse.UserSummary sender) {
+        return build(message, sender, List.of(), List.of());
+    }
+
+    public List<MessageResponse> toResponses(List<Message> messages) {
+        if (messages.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> messageIds = messages.stream().map(Message::getMessageId).collect(Collectors.toList());
+
+        Map<Long, List<MessageReaction>> reactionsByMessage = reactionRepository.findByMessageIdsWithUser(messageIds)
+                .stream()
+                .collect(Collectors.groupingBy(r -> r.getMessage().getMessageId()));
+
+        Map<Long, List<MessageReadReceipt>> receiptsByMessage = readReceiptRepository.findByMessageIdsWithUser(messageIds)
+                .stream()
+                .collect(Collectors.groupingBy(r -> r.getMessage().getMessageId()));
+
+        return messages.stream()
+                .map(m -> build(m, toUserSummary(m.getSender()),
+                        reactionsByMessage.getOrDefault(m.getMessageId(), List.of()),
+                        receiptsByMessage.getOrDefault(m.getMessageId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    private MessageResponse build(Message message, MessageResponse.UserSummary sender,
+                                  List<MessageReaction> reactions, List<MessageReadReceipt> receipts) {
+        MessageResponse response = new MessageResponse();
+        response.setMessageId(message.getMessageId());
+        response.setConversationId(message.getConversation().getConversationId());
+        response.setContent(message.getContent());
+        response.setType(message.getType());
+        response.setFileUrl(message.getFileUrl());
+        response.setFileName(message.getFileName());
+        response.setFileSize(message.getFileSize());
+        response.setIsEdited(message.getIsEdited());
+        response.setIsDeleted(message.getIsDeleted());
+        response.setCreatedAt(message.getCreatedAt());
+        response.setUpdatedAt(message.getUpdatedAt());
+        response.setSender(sender);
+
+        if (message.getReplyToMessage() != null) {
+            MessageResponse.MessageSummary replySummary = new MessageResponse.MessageSummary();
+            replySummary.setMessageId(message.getReplyToMessage().getMessageId());
+            replySummary.setContent(message.getReplyToMessage().getContent());
+            replySummary.setSender(toUserSummary(message.getReplyToMessage().getSender()));
+            response.setReplyToMessage(replySummary);
+        }
+
+        // Reactions grouped by emoji, in the order they were added
+        Map<String, List<MessageResponse.UserSummary>> reactionMap = reactions.stream()
+                .collect(Collectors.groupingBy(
+                        MessageReaction::getEmoji,
+                        LinkedHashMap::new,
+                        Collectors.mapping(r -> toUserSummary(r.getUser()), Collectors.toList())
+                ));
+        response.setReactions(reactionMap);
+
+        // Read receipts
+        response.setReadBy(receipts.stream()
+                .map(r -> toUserSummary(r.getUser()))
+                .collect(Collectors.toList()));
+
+        return response;
+    }
+
+    private MessageResponse.UserSummary toUserSummary(User user) {
+        MessageResponse.UserSummary summary = new MessageResponse.UserSummary();
+        summary.setUserId(user.getUserId());
+        summary.setName(user.getName());
+        summary.setEmail(user.getEmail());
+        return summary;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.unihub.service;
+
+import com.example.unihub.enums.NotificationType;
+import com.example.unihub.model.NotificationFanoutJob;
+import com.example.unihub.repository.NotificationFanoutJobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers one notification to every participant of an event without a long-held transaction.
+ * Callers record a job with enqueueForEventParticipants inside their own transaction; a scheduled
+ * worker then walks the participants in user id order, one chunk per transaction. Each chunk's
+ * notifications are written with batched JDBC inserts in the same transaction that advances the
+ * job's cursor, and dashboard updates for the chunk are pushed only after it commits. A job
+ * interrupted by a crash resumes from its last committed chunk; a crash between a commit and
+ * its pushes only loses those pushes, never notifications.
+ */
+@Service
+@Slf4j
+public class NotificationFanoutService {
+
+    private static final String INSERT_NOTIFICATION =
+            "INSERT INTO notifications (user_id, message, type, is_read, link_url, created_at) VALUES (?, ?, ?, false, ?, ?)";
+
+    private final NotificationFanoutJobRepository jobRepository;
+    private final GamificationService gamificationService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int jdbcBatchSize;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public NotificationFanoutService(NotificationFanoutJobRepository jobRepository,
+                                     GamificationService gamificationService,
+                                     JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${app.notifications.fanout.chunk-size:500}") int chunkSize,
+                                     @Value("${app.notifications.fanout.jdbc-batch-size:100}") int jdbcBatchSize) {
+        this.jobRepository = jobRepository;
+        this.gamificationService = gamificationService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.jdbcBatchSize = jdbcBatchSize;
+    }
+
+    /**
+     * Record a notification for every participant of an event, delivered once the caller commits
+     */
+    public NotificationFanoutJob enqueueForEventParticipants(Long eventId, String message, NotificationType type, String linkUrl) {
+        NotificationFanoutJob job = new NotificationFanoutJob();
+        job.setEventId(eventId);
+        job.setMessage(message);
+        job.setType(type);
+        job.setLinkUrl(linkUrl);
+        enqueued.incrementAndGet();
+        return jobRepository.save(job);
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.fanout.poll-interval-ms:1000}")
+    public void scheduledProcess() {
+        processPending();
+    }
+
+    /**
+     * Run every pending job to completion
+     * @return number of notifications written
+     */
+    public synchronized int processPending() {
+        int written = 0;
+        for (Long jobId : jobRepository.findPendingIds(PageRequest.of(0, 10))) {
+            try {
+                written += runJob(jobId);
+            } catch (Exception e) {
+                // The failed chunk rolled back with its cursor; the next poll retries from there
+                failures.incrementAndGet();
+                log.warn("Notification fan-out job {} stopped, will resume: {}", jobId, e.getMessage());
+            }
+        }
+        return written;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("pendingJobs", jobRepository.countByCompletedAtIsNull());
+        metrics.put("enqueued", enqueued.get());
+        metrics.put("delivered", delivered.get());
+        metrics.put("failures", failures.get());
+        return metrics;
+    }
+
+    private int runJob(Long jobId) {
+        int written = 0;
+        List<Long> userIds;
+        while ((userIds = transactionTemplate.execute(status -> writeChunk(jobId))) != null) {
+            // Committed: safe to tell the clients to refresh
+            for (Long userId : userIds) {
+                gamificationService.sendDashboardUpdate(userId);
+            }
+            written += userIds.size();
+            delivered.addAndGet(userIds.size());
+        }
+        if (written > 0) {
+            log.info("Notification fan-out job {} wrote {} notifications", jobId, written);
+        }
+        return written;
+    }
+
+    /**
+     * Write the next chunk of a job
+     * @return users notified, empty if another worker took the chunk, or null once the job is complete
+     */
+    private List<Long> writeChunk(Long jobId) {
+        NotificationFanoutJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getCompletedAt() != null) {
+            return null;
+        }
+        List<Long> userIds = jdbcTemplate.queryForList(
+                "SELECT user_id FROM event_participants WHERE event_id = ? AND user_id > ? ORDER BY user_id LIMIT ?",
+                Long.class, job.getEventId(), job.getLastUserId(), chunkSize);
+        if (userIds.isEmpty()) {
+            jobRepository.markCompleted(jobId, LocalDateTime.now());
+            return null;
+        }
+        if (jobRepository.advance(jobId, job.getLastUserId(), userIds.get(userIds.size() - 1), userIds.size()) == 0) {
+            return List.of();
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_NOTIFICATION, userIds, jdbcBatchSize, (ps, userId) -> {
+            ps.setLong(1, userId);
+            ps.setString(2, job.getMessage());
+            ps.setString(3, job.getType().name());
+            ps.setString(4, job.getLinkUrl());
+            ps.setTimestamp(5, now);
+        });
+        if (userIds.size() < chunkSize) {
+            jobRepository.markCompleted(jobId, LocalDateTime.now());
+        }
+        return userIds;
+    }
+}
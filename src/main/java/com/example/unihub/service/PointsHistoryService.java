@@ -0,0 +1,112 @@
+package com.example.unihub.service;
+
+import com.example.unihub.dto.response.PointsDailyRollupResponse;
+import com.example.unihub.dto.response.PointsHistoryEntryResponse;
+import com.example.unihub.dto.response.PointsSeriesPointResponse;
+import com.example.unihub.model.PointsLog;
+import com.example.unihub.repository.PointsDailyRollupRepository;
+import com.example.unihub.repository.PointsLogRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Points history and the daily rollups behind the points analytics.
+ * Every points log entry is added to its (user, day, source type) rollup in the same transaction
+ * that writes it, so series and totals never aggregate the raw log. Rows for one user are only
+ * written while that user's points row is locked by the increment, so the update-then-insert
+ * below cannot race with itself.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PointsHistoryService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_SERIES_DAYS = 366;
+
+    private final PointsLogRepository pointsLogRepository;
+    private final PointsDailyRollupRepository rollupRepository;
+
+    /**
+     * Add a points log entry to its daily rollup; call after the user's points were incremented
+     */
+    @Transactional
+    public void record(PointsLog pointsLog) {
+        Long userId = pointsLog.getUser().getUserId();
+        LocalDate day = pointsLog.getCreatedAt().toLocalDate();
+        if (rollupRepository.increment(userId, day, pointsLog.getSourceType(), pointsLog.getPoints()) == 0) {
+            rollupRepository.insertFirst(userId, day, pointsLog.getSourceType(), pointsLog.getPoints());
+        }
+    }
+
+    /**
+     * One page of a user's points log, newest first, optionally for one source type
+     */
+    public Slice<PointsHistoryEntryResponse> getHistory(Long userId, String sourceType, int page, int size) {
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE),
+                Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("pointsLogId")));
+        Slice<PointsLog> logs = sourceType == null
+                ? pointsLogRepository.findByUserUserId(userId, pageable)
+                : pointsLogRepository.findByUserUserIdAndSourceType(userId, sourceType.toUpperCase(), pageable);
+        return logs.map(entry -> new PointsHistoryEntryResponse(entry.getPointsLogId(), entry.getSourceType(),
+                entry.getSourceId(), entry.getPoints(), entry.getDescription(), entry.getCreatedAt()));
+    }
+
+    /**
+     * One page of a user's daily rollups between two days inclusive, newest first
+     */
+    public Slice<PointsDailyRollupResponse> getDailyRollups(Long userId, LocalDate from, LocalDate to, int page, int size) {
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE),
+                Sort.by(Sort.Order.desc("rollupDay"), Sort.Order.asc("sourceType")));
+        return rollupRepository.findByUserIdAndRollupDayBetween(userId, from, to, pageable)
+                .map(rollup -> new PointsDailyRollupResponse(rollup.getRollupDay(), rollup.getSourceType(),
+                        rollup.getPoints(), rollup.getEntryCount()));
+    }
+
+    /**
+     * Net points per day for the last days up to today, with days without points filled in
+     * @param userId the user, or null for the whole site
+     */
+    public List<PointsSeriesPointResponse> getSeries(Long userId, int days) {
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(Math.min(Math.max(days, 1), MAX_SERIES_DAYS) - 1);
+        List<Object[]> rows = userId == null
+                ? rollupRepository.findSiteSeries(from, to)
+                : rollupRepository.findUserSeries(userId, from, to);
+
+        Map<LocalDate, PointsSeriesPointResponse> series = new LinkedHashMap<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            series.put(day, new PointsSeriesPointResponse(day, 0, new TreeMap<>()));
+        }
+        for (Object[] row : rows) {
+            PointsSeriesPointResponse point = series.get((LocalDate) row[0]);
+            int points = ((Number) row[2]).intValue();
+            point.setPoints(point.getPoints() + points);
+            point.getBySourceType().merge((String) row[1], points, Integer::sum);
+        }
+        return new ArrayList<>(series.values());
+    }
+
+    /**
+     * Net points and entry count per source type over all time
+     */
+    public Map<String, Object> getSourceTypeTotals() {
+        Map<String, Object> totals = new LinkedHashMap<>();
+        for (Object[] row : rollupRepository.sumPointsBySourceType()) {
+            Map<String, Object> total = new LinkedHashMap<>();
+            total.put("points", row[1]);
+            total.put("entries", row[2]);
+            totals.put((String) row[0], total);
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.unihub.service;
+
+import com.example.unihub.dto.TypingIndicatorMessage;
+import com.example.unihub.dto.UserPresenceResponse;
+import com.example.unihub.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory presence and typing state.
+ * Sessions are tracked from STOMP connect/disconnect events, so a typing frame is only accepted from a
+ * session that authenticated at the handshake or with the token in its CONNECT frame. Each user emits at most one "typing" update per
+ * conversation per interval, and typing state without fresh activity is expired by a sweeper.
+ */
+@Service
+@Slf4j
+public class PresenceService {
+
+    private final UserRepository userRepository;
+    private final ChatMembershipCache membershipCache;
+    private final WebSocketEventPublisher eventPublisher;
+    private final long typingIntervalMs;
+    private final long typingTtlMs;
+
+    private final Map<String, Long> sessionUsers = new ConcurrentHashMap<>();
+    private final Map<Long, Presence> presence = new ConcurrentHashMap<>();
+    // conversationId -> userId -> typing state
+    private final Map<Long, Map<Long, TypingState>> typing = new ConcurrentHashMap<>();
+
+    private final AtomicLong typingReceived = new AtomicLong();
+    private final AtomicLong typingEmitted = new AtomicLong();
+    private final AtomicLong typingSuppressed = new AtomicLong();
+    private final AtomicLong typingRejected = new AtomicLong();
+    private final AtomicLong typingExpired = new AtomicLong();
+
+    public PresenceService(UserRepository userRepository,
+                           ChatMembershipCache membershipCache,
+                           WebSocketEventPublisher eventPublisher,
+                           @Value("${app.chat.typing.interval-ms:2000}") long typingIntervalMs,
+                           @Value("${app.chat.typing.ttl-ms:6000}") long typingTtlMs) {
+        this.userRepository = userRepository;
+        this.membershipCache = membershipCache;
+        this.eventPublisher = eventPublisher;
+        this.typingIntervalMs = typingIntervalMs;
+        this.typingTtlMs = typingTtlMs;
+    }
+
+    @EventListener
+    public void onSessionConnected(SessionConnectedEvent event) {
+        Principal principal = event.getUser();
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (principal == null || sessionId == null) {
+            return;
+        }
+        userRepository.findByEmail(principal.getName())
+                .ifPresent(user -> connect(sessionId, user.getUserId(), user.getName(), System.currentTimeMillis()));
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        disconnect(event.getSessionId(), System.currentTimeMillis());
+    }
+
+    /**
+     * Handle a typing frame from a WebSocket session. The sender is taken from the session,
+     * never from the payload.
+     */
+    public void handleTyping(String sessionId, Long conversationId, boolean isTyping) {
+        handleTyping(sessionId, conversationId, isTyping, System.currentTimeMillis());
+    }
+
+    public List<UserPresenceResponse> getPresence(Collection<Long> userIds) {
+        List<UserPresenceResponse> result = new ArrayList<>();
+        for (Long userId : new LinkedHashSet<>(userIds)) {
+            Presence p = presence.get(userId);
+            if (p == null) {
+                result.add(new UserPresenceResponse(userId, false, null));
+            } else {
+                result.add(new UserPresenceResponse(userId, !p.sessions.isEmpty(), toDateTime(p.lastSeenAt)));
+            }
+        }
+        return result;
+    }
+
+    public boolean isOnline(Long userId) {
+        Presence p = presence.get(userId);
+        return p != null && !p.sessions.isEmpty();
+    }
+
+    @Scheduled(fixedDelayString = "${app.chat.typing.sweep-interval-ms:1000}")
+    public void expireStaleTyping() {
+        expireStaleTyping(System.currentTimeMillis());
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("connected_sessions", sessionUsers.size());
+        metrics.put("online_users", presence.values().stream().filter(p -> !p.sessions.isEmpty()).count());
+        metrics.put("typing_states", typing.values().stream().mapToInt(Map::size).sum());
+        metrics.put("typing_received", typingReceived.get());
+        metrics.put("typing_emitted", typingEmitted.get());
+        metrics.put("typing_suppressed", typingSuppressed.get());
+        metrics.put("typing_rejected", typingRejected.get());
+        metrics.put("typing_expired", typingExpired.get());
+        return metrics;
+    }
+
+    void connect(String sessionId, Long userId, String userName, long now) {
+        sessionUsers.put(sessionId, userId);
+        presence.compute(userId, (id, p) -> {
+            Presence current = p != null ? p : new Presence();
+            current.userName = userName;
+            current.sessions.add(sessionId);
+            current.lastSeenAt = now;
+            return current;
+        });
+    }
+
+    void disconnect(String sessionId, long now) {
+        Long userId = sessionUsers.remove(sessionId);
+        if (userId == null) {
+            return;
+        }
+        Presence p = presence.computeIfPresent(userId, (id, current) -> {
+            current.sessions.remove(sessionId);
+            current.lastSeenAt = now;
+            return current;
+        });
+        if (p != null && p.sessions.isEmpty()) {
+            clearTyping(userId);
+        }
+    }
+
+    void handleTyping(String sessionId, Long conversationId, boolean isTyping, long now) {
+        typingReceived.incrementAndGet();
+        Long userId = sessionId != null ? sessionUsers.get(sessionId) : null;
+        if (userId == null || conversationId == null) {
+            typingRejected.incrementAndGet();
+            return;
+        }
+
+        if (!isTyping) {
+            Map<Long, TypingState> users = typing.get(conversationId);
+            if (users != null && users.remove(userId) != null) {
+                emit(conversationId, userId, false);
+            } else {
+                typingSuppressed.incrementAndGet();
+            }
+            return;
+        }
+
+        TypingState state = typingState(conversationId, userId);
+        if (state == null) {
+            typingRejected.incrementAndGet();
+            return;
+        }
+        synchronized (state) {
+            state.lastActivityAt = now;
+            if (state.lastEmittedAt != 0 && now - state.lastEmittedAt < typingIntervalMs) {
+                typingSuppressed.incrementAndGet();
+                return;
+            }
+            state.lastEmittedAt = now;
+        }
+        emit(conversationId, userId, true);
+    }
+
+    void expireStaleTyping(long now) {
+        for (Long conversationId : typing.keySet()) {
+            Map<Long, TypingState> users = typing.get(conversationId);
+            if (users == null) {
+                continue;
+            }
+            for (Map.Entry<Long, TypingState> entry : users.entrySet()) {
+                if (now - entry.getValue().lastActivityAt >= typingTtlMs && users.remove(entry.getKey(), entry.getValue())) {
+                    typingExpired.incrementAndGet();
+                    emit(conversationId, entry.getKey(), false);
+                }
+            }
+            typing.computeIfPresent(conversationId, (id, current) -> current.isEmpty() ? null : current);
+        }
+    }
+
+    /**
+     * Existing typing state for the user, or a new one once membership is confirmed.
+     * Membership is only checked at the start of a typing burst, not on every keystroke.
+     */
+    private TypingState typingState(Long conversationId, Long userId) {
+        Map<Long, TypingState> users = typing.get(conversationId);
+        TypingState state = users != null ? users.get(userId) : null;
+        if (state != null) {
+            return state;
+        }
+        if (!membershipCache.isMember(conversationId, userId)) {
+            return null;
+        }
+        TypingState created = new TypingState();
+        // Insert under the map's lock so the sweeper cannot drop the conversation entry in between
+        Map<Long, TypingState> updated = typing.compute(conversationId, (id, current) -> {
+            Map<Long, TypingState> map = current != null ? current : new ConcurrentHashMap<>();
+            map.putIfAbsent(userId, created);
+            return map;
+        });
+        return updated.get(userId);
+    }
+
+    private void clearTyping(Long userId) {
+        typing.forEach((conversationId, users) -> {
+            if (users.remove(userId) != null) {
+                emit(conversationId, userId, false);
+            }
+        });
+    }
+
+    private void emit(Long conversationId, Long userId, boolean isTyping) {
+        Presence p = presence.get(userId);
+        TypingIndicatorMessage message = new TypingIndicatorMessage(
+                conversationId, userId, p != null ? p.userName : null, isTyping);
+        // Keyed per user so a start immediately followed by a stop only delivers the stop
+        eventPublisher.publishCoalesced("/topic/conversation/" + conversationId + "/typing", userId, message);
+        typingEmitted.incrementAndGet();
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static final class Presence {
+        final Set<String> sessions = ConcurrentHashMap.newKeySet();
+        volatile String userName;
+        volatile long lastSeenAt;
+    }
+
+    private static final class TypingState {
+        volatile long lastActivityAt;
+        long lastEmittedAt;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.unihub.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind buffer for conversation read state.
+ * markAsRead only records the latest read time per (conversation, user); repeated reads between
+ * flushes collapse into one row. A scheduled flush writes all pending rows in one JDBC batch and
+ * then sends one coalesced {userId, readAt} read-receipt event per flushed row. Pending state is
+ * flushed on shutdown, and callers can overlay it on what they read from the database until it
+ * has been written.
+ */
+@Component
+@Slf4j
+public class ReadStateBuffer {
+
+    // The unread counter is recomputed from the messages newer than the read time, so messages that
+    // arrive while a read is still buffered are counted instead of being wiped by a blind reset to 0
+    private static final String FLUSH_SQL =
+            "UPDATE conversation_participants SET last_read_at = ?, unread_count = (" +
+            "SELECT COUNT(*) FROM messages m " +
+            "WHERE m.conversation_id = ? AND m.sender_id <> ? " +
+            "AND (m.is_deleted = false OR m.is_deleted IS NULL) AND m.created_at > ?) " +
+            "WHERE conversation_id = ? AND user_id = ? AND (last_read_at IS NULL OR last_read_at < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final WebSocketEventPublisher eventPublisher;
+
+    private final Map<Key, LocalDateTime> pending = new ConcurrentHashMap<>();
+    // Rows taken by a flush that has not committed yet; still visible through pendingReadAt
+    private final Map<Key, LocalDateTime> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong flushedRows = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public ReadStateBuffer(JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           WebSocketEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+    }
+
+    public void record(Long conversationId, Long userId, LocalDateTime readAt) {
+        recorded.incrementAndGet();
+        pending.merge(new Key(conversationId, userId), readAt, (a, b) -> a.isAfter(b) ? a : b);
+    }
+
+    /**
+     * Read time recorded for the user but not yet committed to the database, or null
+     */
+    public LocalDateTime pendingReadAt(Long conversationId, Long userId) {
+        Key key = new Key(conversationId, userId);
+        LocalDateTime buffered = pending.get(key);
+        return buffered != null ? buffered : inFlight.get(key);
+    }
+
+    @Scheduled(fixedDelayString = "${app.chat.read-state.flush-interval-ms:500}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        int rows = flush();
+        if (rows > 0) {
+            log.info("Flushed {} buffered read states on shutdown", rows);
+        }
+    }
+
+    /**
+     * Write every pending read state in one batch
+     * @return number of rows written
+     */
+    public synchronized int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        List<Map.Entry<Key, LocalDateTime>> batch = new ArrayList<>();
+        for (Key key : pending.keySet()) {
+            LocalDateTime readAt = pending.remove(key);
+            if (readAt != null) {
+                inFlight.put(key, readAt);
+                batch.add(Map.entry(key, readAt));
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch, batch.size(),
+                    (ps, entry) -> {
+                        Key key = entry.getKey();
+                        Timestamp readAt = Timestamp.valueOf(entry.getValue());
+                        ps.setTimestamp(1, readAt);
+                        ps.setLong(2, key.conversationId());
+                        ps.setLong(3, key.userId());
+                        ps.setTimestamp(4, readAt);
+                        ps.setLong(5, key.conversationId());
+                        ps.setLong(6, key.userId());
+                        ps.setTimestamp(7, readAt);
+                    }));
+        } catch (Exception e) {
+            failures.incrementAndGet();
+            log.warn("Read state flush of {} rows failed, retrying on next flush: {}", batch.size(), e.getMessage());
+            batch.forEach(entry -> pending.merge(entry.getKey(), entry.getValue(), (a, b) -> a.isAfter(b) ? a : b));
+            return 0;
+        } finally {
+            batch.forEach(entry -> inFlight.remove(entry.getKey(), entry.getValue()));
+        }
+
+        flushes.incrementAndGet();
+        flushedRows.addAndGet(batch.size());
+        broadcast(batch);
+        return batch.size();
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("pending", pending.size());
+        metrics.put("recorded", recorded.get());
+        metrics.put("flushed_rows", flushedRows.get());
+        metrics.put("flushes", flushes.get());
+        metrics.put("failures", failures.get());
+        return metrics;
+    }
+
+    // Same per-read payload clients received before reads were buffered; only the latest read per
+    // (conversation, user) survives a flush interval, so a burst of reads sends one event each
+    private void broadcast(List<Map.Entry<Key, LocalDateTime>> batch) {
+        for (Map.Entry<Key, LocalDateTime> entry : batch) {
+            Long userId = entry.getKey().userId();
+            eventPublisher.publishCoalesced("/topic/conversation/" + entry.getKey().conversationId() + "/read", userId,
+                    Map.of("userId", userId, "readAt", entry.getValue()));
+        }
+    }
+
+    private record Key(Long conversationId, Long userId) {
+    }
+}
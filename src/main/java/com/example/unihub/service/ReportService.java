@@ -28,7 +28,7 @@ public class ReportService {
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
     private final NotificationRepository notificationRepository;
-    private final GamificationService gamificationService;
+    private final GamificationOutboxService gamificationOutboxService;
 
     /**
      * Report a blog (one-time per user per blog)
@@ -59,7 +59,9 @@ public class ReportService {
         report.setReason(reason);
         report.setStatus(ReportStatus.PENDING);
         
-        return blogReportRepository.save(report);
+        BlogReport saved = blogReportRepository.save(report);
+        blogRepository.adjustReportCount(blogId, 1);
+        return saved;
     }
 
     /**
@@ -94,7 +96,9 @@ public class ReportService {
         report.setReason(reason);
         report.setStatus(ReportStatus.PENDING);
         
-        return eventReportRepository.save(report);
+        EventReport saved = eventReportRepository.save(report);
+        eventRepository.adjustReportCount(eventId, 1);
+        return saved;
     }
 
     /**
@@ -206,24 +210,25 @@ public class ReportService {
         
         // Award reporter +15 points for valid report
         User reporter = report.getReportedBy();
-        gamificationService.awardPoints(
-            reporter,
+        boolean awarded = gamificationOutboxService.award(
+            reporter.getUserId(),
             15,
-            "REPORT_RESOLVED",
+            "BLOG_REPORT_RESOLVED",
             reportId,
             "Your report on blog '" + report.getBlog().getTitle() + "' was resolved"
         );
         
-        // Notify reporter
+        // Notify reporter; only mention points that were actually recorded
         Notification notification = new Notification();
         notification.setUser(reporter);
-        notification.setMessage("Your report on blog '" + report.getBlog().getTitle() + "' was resolved. You earned 15 points!");
+        notification.setMessage("Your report on blog '" + report.getBlog().getTitle() + "' was resolved."
+            + (awarded ? " You earned 15 points!" : ""));
         notification.setType(NotificationType.SYSTEM_ALERT);
         notification.setLinkUrl("/blogs/" + report.getBlog().getBlogId());
         notification.setIsRead(false);
         notificationRepository.save(notification);
         
-        log.info("Blog report {} resolved, reporter awarded 15 points", reportId);
+        log.info("Blog report {} resolved, reporter awarded {} points", reportId, awarded ? 15 : 0);
     }
 
     /**
@@ -239,24 +244,25 @@ public class ReportService {
         
         // Penalize reporter -50 points for false report
         User reporter = report.getReportedBy();
-        gamificationService.deductPoints(
-            reporter,
+        boolean penalized = gamificationOutboxService.deduct(
+            reporter.getUserId(),
             50,
-            "REPORT_DISMISSED",
+            "BLOG_REPORT_DISMISSED",
             reportId,
             "Your report on blog '" + report.getBlog().getTitle() + "' was dismissed (false report)"
         );
         
-        // Notify reporter
+        // Notify reporter; only mention a penalty that was actually recorded
         Notification notification = new Notification();
         notification.setUser(reporter);
-        notification.setMessage("Your report on blog '" + report.getBlog().getTitle() + "' was dismissed. Penalty: -50 points");
+        notification.setMessage("Your report on blog '" + report.getBlog().getTitle() + "' was dismissed."
+            + (penalized ? " Penalty: -50 points" : ""));
         notification.setType(NotificationType.SYSTEM_ALERT);
         notification.setLinkUrl("/blogs/" + report.getBlog().getBlogId());
         notification.setIsRead(false);
         notificationRepository.save(notification);
         
-        log.info("Blog report {} dismissed, reporter penalized 50 points", reportId);
+        log.info("Blog report {} dismissed, reporter penalized {} points", reportId, penalized ? 50 : 0);
     }
 
     /**
@@ -272,24 +278,25 @@ public class ReportService {
         
         // Award reporter +15 points for valid report
         User reporter = report.getReportedBy();
-        gamificationService.awardPoints(
-            reporter,
+        boolean awarded = gamificationOutboxService.award(
+            reporter.getUserId(),
             15,
-            "REPORT_RESOLVED",
+            "EVENT_REPORT_RESOLVED",
             reportId,
             "Your report on event '" + report.getEvent().getTitle() + "' was resolved"
         );
         
-        // Notify reporter
+        // Notify reporter; only mention points that were actually recorded
         Notification notification = new Notification();
         notification.setUser(reporter);
-        notification.setMessage("Your report on event '" + report.getEvent().getTitle() + "' was resolved. You earned 15 points!");
+        notification.setMessage("Your report on event '" + report.getEvent().getTitle() + "' was resolved."
+            + (awarded ? " You earned 15 points!" : ""));
         notification.setType(NotificationType.SYSTEM_ALERT);
         notification.setLinkUrl("/events/" + report.getEvent().getEventId());
         notification.setIsRead(false);
         notificationRepository.save(notification);
         
-        log.info("Event report {} resolved, reporter awarded 15 points", reportId);
+        log.info("Event report {} resolved, reporter awarded {} points", reportId, awarded ? 15 : 0);
     }
 
     /**
@@ -305,23 +312,24 @@ public class ReportService {
         
         // Penalize reporter -50 points for false report
         User reporter = report.getReportedBy();
-        gamificationService.deductPoints(
-            reporter,
+        boolean penalized = gamificationOutboxService.deduct(
+            reporter.getUserId(),
             50,
-            "REPORT_DISMISSED",
+            "EVENT_REPORT_DISMISSED",
             reportId,
             "Your report on event '" + report.getEvent().getTitle() + "' was dismissed (false report)"
         );
         
-        // Notify reporter
+        // Notify reporter; only mention a penalty that was actually recorded
         Notification notification = new Notification();
         notification.setUser(reporter);
-        notification.setMessage("Your report on event '" + report.getEvent().getTitle() + "' was dismissed. Penalty: -50 points");
+        notification.setMessage("Your report on event '" + report.getEvent().getTitle() + "' was dismissed."
+            + (penalized ? " Penalty: -50 points" : ""));
         notification.setType(NotificationType.SYSTEM_ALERT);
         notification.setLinkUrl("/events/" + report.getEvent().getEventId());
         notification.setIsRead(false);
         notificationRepository.save(notification);
         
-        log.info("Event report {} dismissed, reporter penalized 50 points", reportId);
+        log.info("Event report {} dismissed, reporter penalized {} points", reportId, penalized ? 50 : 0);
     }
 }
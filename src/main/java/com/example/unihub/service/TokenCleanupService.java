@@ -17,6 +17,7 @@ public class TokenCleanupService {
 
     private final EmailVerificationTokenRepository verificationTokenRepository;
     private final UserRepository userRepository;
+    private final LeaderboardIndex leaderboardIndex;
 
     @Scheduled(cron = "0 0 2 * * ?") // Run daily at 2 AM
     @Transactional
@@ -32,5 +33,8 @@ public class TokenCleanupService {
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(7);
         long deleted = userRepository.deleteByEmailVerifiedFalseAndCreatedAtBefore(cutoffDate);
         log.info("Deleted {} unverified accounts", deleted);
+        if (deleted > 0) {
+            leaderboardIndex.rebuildAfterCommit();
+        }
     }
 }
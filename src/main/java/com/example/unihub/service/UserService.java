@@ -7,7 +7,6 @@ import com.example.unihub.model.EmailVerificationToken;
 import com.example.unihub.model.University;
 import com.example.unihub.model.User;
 import com.example.unihub.model.UserBadge;
-import com.example.unihub.repository.BadgeRepository;
 import com.example.unihub.repository.EmailVerificationTokenRepository;
 import com.example.unihub.repository.UniversityRepository;
 import com.example.unihub.repository.UserBadgeRepository;
@@ -29,10 +28,12 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final UserBadgeRepository userBadgeRepository;
-    private final BadgeRepository badgeRepository;
+    private final BadgeCatalog badgeCatalog;
     private final UniversityRepository universityRepository;
     private final EmailVerificationTokenRepository verificationTokenRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ChatMembershipCache chatMembershipCache;
+    private final LeaderboardIndex leaderboardIndex;
 
     /**
      * Get user by ID
@@ -87,11 +88,12 @@ public class UserService {
             user.setUniversity(university);
         }
         
-        Badge defaultBadge = badgeRepository.findTopByPointsThresholdLessThanEqualOrderByPointsThresholdDesc(0)
-            .orElse(null);
+        Badge defaultBadge = badgeCatalog.resolve(0);
         user.setCurrentBadge(defaultBadge);
         
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        leaderboardIndex.update(savedUser);
+        return savedUser;
     }
 
     /**
@@ -113,6 +115,8 @@ public class UserService {
             user.setEmail(email);
         }
         
+        // Chat membership entries carry the name and email shown on new messages
+        chatMembershipCache.evictUser(userId);
         return userRepository.save(user);
     }
 
@@ -161,7 +165,9 @@ public class UserService {
             user.setUniversity(null);
         }
         
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        leaderboardIndex.update(savedUser);
+        return savedUser;
     }
 
     /**
@@ -176,7 +182,7 @@ public class UserService {
      */
     public List<Badge> getAllBadgesWithProgress(Long userId) {
         User user = getUserById(userId);
-        List<Badge> allBadges = badgeRepository.findAllByOrderByPointsThresholdAsc();
+        List<Badge> allBadges = badgeCatalog.all();
         
         // The frontend can determine if each badge is earned by comparing
         // user's points with badge threshold
@@ -210,11 +216,11 @@ public class UserService {
         newUser.setRole(UserRole.STUDENT);
         newUser.setPoints(0);
         
-        Badge defaultBadge = badgeRepository.findTopByPointsThresholdLessThanEqualOrderByPointsThresholdDesc(0)
-            .orElse(null);
+        Badge defaultBadge = badgeCatalog.resolve(0);
         newUser.setCurrentBadge(defaultBadge);
         
         User savedUser = userRepository.save(newUser);
+        leaderboardIndex.update(savedUser);
         log.info("OAuth2 user created successfully with ID: {}", savedUser.getUserId());
         
         return savedUser;
@@ -265,6 +271,8 @@ public class UserService {
         
         // Delete user - cascading will handle related entities
         userRepository.delete(user);
+        chatMembershipCache.evictUser(userId);
+        leaderboardIndex.remove(userId);
         
         log.info("User {} successfully deleted", userId);
     }
@@ -0,0 +1,194 @@
+package com.example.unihub.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outbound WebSocket pipeline.
+ * Events published inside a transaction are only queued once it commits (and dropped on rollback),
+ * so broker pushes never hold a DB transaction open. A dedicated thread drains the bounded queue in
+ * batches; within a batch, events sharing a coalesce key only deliver their latest payload.
+ */
+@Component
+@Slf4j
+public class WebSocketEventPublisher {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final BlockingQueue<OutboundEvent> queue;
+    private final int batchSize;
+    private final long offerTimeoutMs;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "ws-outbound");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean running = true;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    public WebSocketEventPublisher(SimpMessagingTemplate messagingTemplate,
+                                   @Value("${app.websocket.outbound.queue-capacity:10000}") int queueCapacity,
+                                   @Value("${app.websocket.outbound.batch-size:500}") int batchSize,
+                                   @Value("${app.websocket.outbound.offer-timeout-ms:50}") long offerTimeoutMs) {
+        this.messagingTemplate = messagingTemplate;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.offerTimeoutMs = offerTimeoutMs;
+    }
+
+    @PostConstruct
+    void start() {
+        executor.submit(this::drainLoop);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            log.warn("WebSocket outbound queue did not drain before shutdown, {} events left", queue.size());
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Deliver every event to the destination, in publish order
+     */
+    public void publish(String destination, Object payload) {
+        submit(new OutboundEvent(destination, null, payload));
+    }
+
+    /**
+     * Deliver only the latest payload per (destination, coalesceKey) within a burst.
+     * Use for state snapshots such as unread counters or a message's current reactions.
+     */
+    public void publishCoalesced(String destination, Object coalesceKey, Object payload) {
+        submit(new OutboundEvent(destination, coalesceKey, payload));
+    }
+
+    public Map<String, Object> getMetrics() {
+        long count = published.get();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("queue_depth", queue.size());
+        metrics.put("queue_remaining_capacity", queue.remainingCapacity());
+        metrics.put("published", count);
+        metrics.put("coalesced", coalesced.get());
+        metrics.put("dropped", dropped.get());
+        metrics.put("failed", failed.get());
+        metrics.put("avg_publish_latency_ms", count == 0 ? 0.0 : totalLatencyNanos.get() / (double) count / 1_000_000);
+        metrics.put("max_publish_latency_ms", maxLatencyNanos.get() / 1_000_000.0);
+        return metrics;
+    }
+
+    private void submit(OutboundEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    private void enqueue(OutboundEvent event) {
+        event.enqueuedAt = System.nanoTime();
+        try {
+            if (!queue.offer(event, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                dropped.incrementAndGet();
+                log.warn("WebSocket outbound queue full, dropping event for {}", event.destination);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void drainLoop() {
+        List<OutboundEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                OutboundEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("WebSocket outbound dispatch failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void dispatch(List<OutboundEvent> batch) {
+        // Last position of each coalesce key; earlier events with the same key are superseded
+        Map<List<Object>, Integer> lastIndex = new HashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            OutboundEvent event = batch.get(i);
+            if (event.coalesceKey != null) {
+                lastIndex.put(List.of(event.destination, event.coalesceKey), i);
+            }
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            OutboundEvent event = batch.get(i);
+            if (event.coalesceKey != null && lastIndex.get(List.of(event.destination, event.coalesceKey)) != i) {
+                coalesced.incrementAndGet();
+                continue;
+            }
+            try {
+                messagingTemplate.convertAndSend(event.destination, event.payload);
+                published.incrementAndGet();
+                recordLatency(System.nanoTime() - event.enqueuedAt);
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                log.warn("Failed to send WebSocket event to {}: {}", event.destination, e.getMessage());
+            }
+        }
+    }
+
+    int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void recordLatency(long nanos) {
+        totalLatencyNanos.addAndGet(nanos);
+        maxLatencyNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    static final class OutboundEvent {
+        final String destination;
+        final Object coalesceKey;
+        final Object payload;
+        long enqueuedAt;
+
+        OutboundEvent(String destination, Object coalesceKey, Object payload) {
+            this.destination = destination;
+            this.coalesceKey = coalesceKey;
+            this.payload = payload;
+        }
+    }
+}
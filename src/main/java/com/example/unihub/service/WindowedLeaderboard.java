@@ -0,0 +1,271 @@
+package com.example.unihub.service;
+
+import com.example.unihub.enums.LeaderboardWindow;
+import com.example.unihub.repository.PointsDailyRollupRepository;
+import com.example.unihub.util.ScopedRanking;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Rolling weekly and monthly members leaderboards.
+ * The per-user, per-day buckets are read from points_daily_rollups, which every instance keeps
+ * current in the transaction that writes each points log entry, so all instances rank the same
+ * awards. Between refreshes, entries committed by this instance are added after their transaction
+ * commits, and when the day rolls over the bucket leaving a window is subtracted from it. Each
+ * refresh replaces the buckets with what the rollups hold, which brings in awards applied by other
+ * instances; an entry that commits while a refresh is reading may be missing until the next one.
+ */
+@Component
+@Slf4j
+public class WindowedLeaderboard {
+
+    private static final int RETAINED_DAYS = LeaderboardWindow.MONTH.getDays();
+    private static final List<LeaderboardWindow> WINDOWS = List.of(LeaderboardWindow.WEEK, LeaderboardWindow.MONTH);
+
+    private final PointsDailyRollupRepository rollupRepository;
+    private final LeaderboardIndex leaderboardIndex;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final TreeMap<LocalDate, Map<Long, Integer>> buckets = new TreeMap<>();
+    // Net points per user and window; only users with a positive total are ranked
+    private final Map<LeaderboardWindow, Map<Long, Integer>> totals = new EnumMap<>(LeaderboardWindow.class);
+    private final Map<LeaderboardWindow, ScopedRanking> rankings = new EnumMap<>(LeaderboardWindow.class);
+    private LocalDate today = LocalDate.now();
+    private boolean loaded;
+
+    private final String epoch = Long.toHexString(new Random().nextLong());
+    private final AtomicLong version = new AtomicLong();
+
+    public WindowedLeaderboard(PointsDailyRollupRepository rollupRepository, LeaderboardIndex leaderboardIndex) {
+        this.rollupRepository = rollupRepository;
+        this.leaderboardIndex = leaderboardIndex;
+        for (LeaderboardWindow window : WINDOWS) {
+            totals.put(window, new HashMap<>());
+            rankings.put(window, new ScopedRanking());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        load(LocalDate.now());
+    }
+
+    /**
+     * Count a points log entry once the current transaction commits
+     */
+    public void record(Long userId, int points, LocalDateTime createdAt) {
+        Entry entry = new Entry(userId, points, createdAt.toLocalDate());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(entry);
+                }
+            });
+        } else {
+            apply(entry);
+        }
+    }
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Changes whenever any windowed standing changes; usable as a cache validator
+     */
+    public String getVersionTag() {
+        return epoch + "-w" + version.get();
+    }
+
+    /**
+     * Page of a window's ranking starting at a zero-based offset
+     */
+    public List<LeaderboardIndex.RankedUser> top(LeaderboardWindow window, Long universityId, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            ScopedRanking ranking = ranking(window);
+            List<LeaderboardIndex.RankedUser> result = new ArrayList<>();
+            int end = Math.min(ranking.size(universityId), offset + limit);
+            for (int rank = Math.max(0, offset); rank < end; rank++) {
+                result.add(new LeaderboardIndex.RankedUser(ranking.idAt(universityId, rank),
+                        (int) ranking.scoreAt(universityId, rank), rank + 1));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * One-based rank of the user in the window, or -1 if the user has no points in it
+     */
+    public int rankOf(Long userId, LeaderboardWindow window, Long universityId) {
+        lock.readLock().lock();
+        try {
+            int rank = ranking(window).rankOf(userId, universityId);
+            return rank < 0 ? -1 : rank + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Points the user earned within the window
+     */
+    public int pointsOf(Long userId, LeaderboardWindow window) {
+        lock.readLock().lock();
+        try {
+            ranking(window);
+            return totals.get(window).getOrDefault(userId, 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Re-read the windows from the rollups, rolling them over to the current day
+     */
+    @Scheduled(fixedDelayString = "${app.leaderboard.windows.refresh-interval-ms:60000}",
+               initialDelayString = "${app.leaderboard.windows.refresh-interval-ms:60000}")
+    public void refresh() {
+        load(LocalDate.now());
+    }
+
+    void load(LocalDate loadDay) {
+        long start = System.currentTimeMillis();
+        TreeMap<LocalDate, Map<Long, Integer>> loadedBuckets = new TreeMap<>();
+        for (Object[] row : rollupRepository.findUserDayTotalsSince(loadDay.minusDays(RETAINED_DAYS - 1))) {
+            LocalDate day = (LocalDate) row[0];
+            int points = ((Number) row[2]).intValue();
+            if (!day.isAfter(loadDay) && points != 0) {
+                loadedBuckets.computeIfAbsent(day, d -> new HashMap<>()).put((Long) row[1], points);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            boolean changed = !loaded || !loadDay.equals(today) || !loadedBuckets.equals(buckets);
+            buckets.clear();
+            buckets.putAll(loadedBuckets);
+            today = loadDay;
+            rebuildRankings();
+            loaded = true;
+            if (changed) {
+                version.incrementAndGet();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Windowed leaderboards loaded {} days in {} ms", loadedBuckets.size(), System.currentTimeMillis() - start);
+    }
+
+    private void apply(Entry entry) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                // Committed entries are read from the rollups by the load, or failing that the next refresh
+                return;
+            }
+            add(entry);
+            version.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(Entry entry) {
+        if (entry.day.isAfter(today)) {
+            roll(entry.day);
+        }
+        if (entry.day.isBefore(today.minusDays(RETAINED_DAYS - 1))) {
+            return;
+        }
+        buckets.computeIfAbsent(entry.day, d -> new HashMap<>()).merge(entry.userId, entry.points, Integer::sum);
+        for (LeaderboardWindow window : WINDOWS) {
+            if (!entry.day.isBefore(today.minusDays(window.getDays() - 1))) {
+                adjust(window, entry.userId, entry.points);
+            }
+        }
+    }
+
+    // Advance to a later day, subtracting the buckets that fall out of each window
+    private void roll(LocalDate newToday) {
+        if (!newToday.isAfter(today)) {
+            return;
+        }
+        if (ChronoUnit.DAYS.between(today, newToday) >= RETAINED_DAYS) {
+            buckets.clear();
+            today = newToday;
+            rebuildRankings();
+        } else {
+            while (today.isBefore(newToday)) {
+                today = today.plusDays(1);
+                for (LeaderboardWindow window : WINDOWS) {
+                    Map<Long, Integer> leaving = buckets.get(today.minusDays(window.getDays()));
+                    if (leaving != null) {
+                        leaving.forEach((userId, points) -> adjust(window, userId, -points));
+                    }
+                }
+            }
+            buckets.headMap(today.minusDays(RETAINED_DAYS - 1)).clear();
+        }
+        version.incrementAndGet();
+    }
+
+    private void rebuildRankings() {
+        for (LeaderboardWindow window : WINDOWS) {
+            Map<Long, Integer> windowTotals = totals.get(window);
+            ScopedRanking ranking = rankings.get(window);
+            windowTotals.clear();
+            ranking.clear();
+            buckets.tailMap(today.minusDays(window.getDays() - 1)).values()
+                    .forEach(bucket -> bucket.forEach((userId, points) -> windowTotals.merge(userId, points, Integer::sum)));
+            windowTotals.values().removeIf(points -> points == 0);
+            windowTotals.forEach((userId, points) -> {
+                if (points > 0) {
+                    ranking.put(userId, leaderboardIndex.universityOf(userId), points);
+                }
+            });
+        }
+    }
+
+    private void adjust(LeaderboardWindow window, Long userId, int delta) {
+        Map<Long, Integer> windowTotals = totals.get(window);
+        int total = windowTotals.getOrDefault(userId, 0) + delta;
+        if (total == 0) {
+            windowTotals.remove(userId);
+        } else {
+            windowTotals.put(userId, total);
+        }
+        // Penalties are logged in full even when points were clamped at zero, so totals can go negative
+        if (total > 0) {
+            rankings.get(window).put(userId, leaderboardIndex.universityOf(userId), total);
+        } else {
+            rankings.get(window).remove(userId);
+        }
+    }
+
+    private ScopedRanking ranking(LeaderboardWindow window) {
+        ScopedRanking ranking = rankings.get(window);
+        if (ranking == null) {
+            throw new IllegalArgumentException("No rolling leaderboard for window " + window);
+        }
+        return ranking;
+    }
+
+    private record Entry(Long userId, int points, LocalDate day) {
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.unihub.util;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary snapshot of the members leaderboard: one [userId, universityId, points] row per user plus
+ * the points_log and users watermarks it was taken at. The file is a fixed header, 20 bytes per
+ * row and a CRC32 of everything before it; it is written to a temporary file and moved into place,
+ * so readers never see a partial snapshot.
+ */
+public final class LeaderboardSnapshot {
+
+    private static final int MAGIC = 0x554C4253; // "ULBS"
+    private static final int FORMAT_VERSION = 1;
+    private static final long NO_UNIVERSITY = -1L;
+
+    private final long pointsLogWatermark;
+    private final long maxUserId;
+    private final long takenAtMillis;
+    private final List<Object[]> standings;
+
+    /**
+     * @param standings rows of [userId (Long), universityId (Long, may be null), points (Integer)]
+     */
+    public LeaderboardSnapshot(long pointsLogWatermark, long maxUserId, long takenAtMillis, List<Object[]> standings) {
+        this.pointsLogWatermark = pointsLogWatermark;
+        this.maxUserId = maxUserId;
+        this.takenAtMillis = takenAtMillis;
+        this.standings = standings;
+    }
+
+    /**
+     * Highest points_log id that existed when the snapshot was taken
+     */
+    public long getPointsLogWatermark() {
+        return pointsLogWatermark;
+    }
+
+    /**
+     * Highest user id that existed when the snapshot was taken
+     */
+    public long getMaxUserId() {
+        return maxUserId;
+    }
+
+    public long getTakenAtMillis() {
+        return takenAtMillis;
+    }
+
+    public List<Object[]> getStandings() {
+        return standings;
+    }
+
+    /**
+     * Atomically replace the file at path with this snapshot
+     */
+    public void write(Path path) throws IOException {
+        Path dir = path.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+        try {
+            CRC32 crc = new CRC32();
+            try (OutputStream file = Files.newOutputStream(tmp);
+                 BufferedOutputStream buffered = new BufferedOutputStream(file, 1 << 16);
+                 DataOutputStream out = new DataOutputStream(buffered)) {
+                DataOutputStream checked = new DataOutputStream(new CheckedOutputStream(out, crc));
+                checked.writeInt(MAGIC);
+                checked.writeInt(FORMAT_VERSION);
+                checked.writeLong(pointsLogWatermark);
+                checked.writeLong(maxUserId);
+                checked.writeLong(takenAtMillis);
+                checked.writeInt(standings.size());
+                for (Object[] row : standings) {
+                    checked.writeLong((Long) row[0]);
+                    checked.writeLong(row[1] != null ? (Long) row[1] : NO_UNIVERSITY);
+                    checked.writeInt(row[2] != null ? (Integer) row[2] : 0);
+                }
+                checked.flush();
+                out.writeLong(crc.getValue());
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Read and verify a snapshot
+     * @throws IOException if the file is missing, truncated, of another format or fails its checksum
+     */
+    public static LeaderboardSnapshot read(Path path) throws IOException {
+        long size = Files.size(path);
+        CRC32 crc = new CRC32();
+        try (InputStream file = Files.newInputStream(path);
+             BufferedInputStream buffered = new BufferedInputStream(file, 1 << 16);
+             DataInputStream in = new DataInputStream(buffered)) {
+            DataInputStream checked = new DataInputStream(new CheckedInputStream(in, crc));
+            if (checked.readInt() != MAGIC) {
+                throw new IOException("Not a leaderboard snapshot");
+            }
+            int formatVersion = checked.readInt();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException("Unsupported leaderboard snapshot version " + formatVersion);
+            }
+            long pointsLogWatermark = checked.readLong();
+            long maxUserId = checked.readLong();
+            long takenAtMillis = checked.readLong();
+            int count = checked.readInt();
+            // Header is 36 bytes and the checksum 8; anything else means a torn or padded file
+            if (count < 0 || size != 44L + 20L * count) {
+                throw new IOException("Leaderboard snapshot size does not match its row count");
+            }
+            List<Object[]> standings = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long userId = checked.readLong();
+                long universityId = checked.readLong();
+                int points = checked.readInt();
+                standings.add(new Object[]{userId, universityId == NO_UNIVERSITY ? null : universityId, points});
+            }
+            long expected = crc.getValue();
+            if (in.readLong() != expected) {
+                throw new IOException("Leaderboard snapshot checksum mismatch");
+            }
+            return new LeaderboardSnapshot(pointsLogWatermark, maxUserId, takenAtMillis, standings);
+        } catch (EOFException e) {
+            throw new IOException("Leaderboard snapshot is truncated", e);
+        }
+    }
+}
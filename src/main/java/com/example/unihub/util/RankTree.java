@@ -0,0 +1,165 @@
+package com.example.unihub.util;
+
+import java.util.SplittableRandom;
+
+/**
+ * Order-statistic set of (id, score) pairs, ordered by score descending and then id ascending.
+ * Implemented as a treap whose nodes carry subtree sizes, so insert, remove, rank-of and
+ * select-by-rank are all O(log n) expected. Not thread-safe; callers synchronize.
+ */
+public class RankTree {
+
+    private static final class Node {
+        final long id;
+        final long score;
+        final int priority;
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(long id, long score, int priority) {
+            this.id = id;
+            this.score = score;
+            this.priority = priority;
+        }
+    }
+
+    private final SplittableRandom random = new SplittableRandom();
+    private Node root;
+
+    public int size() {
+        return size(root);
+    }
+
+    public void insert(long id, long score) {
+        Node[] parts = split(root, id, score);
+        root = merge(merge(parts[0], new Node(id, score, random.nextInt())), parts[1]);
+    }
+
+    /**
+     * @return true if the pair was present
+     */
+    public boolean remove(long id, long score) {
+        int before = size(root);
+        root = remove(root, id, score);
+        return size(root) < before;
+    }
+
+    /**
+     * Zero-based position of the pair, or -1 if it is not in the set
+     */
+    public int rankOf(long id, long score) {
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(id, score, node);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                rank += size(node.left) + 1;
+                node = node.right;
+            } else {
+                return rank + size(node.left);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Id at the given zero-based position
+     */
+    public long idAt(int rank) {
+        return select(rank).id;
+    }
+
+    /**
+     * Score at the given zero-based position
+     */
+    public long scoreAt(int rank) {
+        return select(rank).score;
+    }
+
+    private Node select(int rank) {
+        if (rank < 0 || rank >= size(root)) {
+            throw new IndexOutOfBoundsException("Rank " + rank + " out of " + size(root));
+        }
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (rank < leftSize) {
+                node = node.left;
+            } else if (rank > leftSize) {
+                rank -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node;
+            }
+        }
+    }
+
+    private Node remove(Node node, long id, long score) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(id, score, node);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = remove(node.left, id, score);
+        } else {
+            node.right = remove(node.right, id, score);
+        }
+        update(node);
+        return node;
+    }
+
+    // [0] holds every pair ordered before (id, score), [1] the rest
+    private Node[] split(Node node, long id, long score) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (compare(id, score, node) > 0) {
+            Node[] parts = split(node.right, id, score);
+            node.right = parts[0];
+            update(node);
+            return new Node[]{node, parts[1]};
+        }
+        Node[] parts = split(node.left, id, score);
+        node.left = parts[1];
+        update(node);
+        return new Node[]{parts[0], node};
+    }
+
+    private Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static int compare(long id, long score, Node node) {
+        if (score != node.score) {
+            return score > node.score ? -1 : 1;
+        }
+        return Long.compare(id, node.id);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.unihub.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Scores ranked globally and within one scope per id (a university, for example), built on
+ * RankTree. A null scope means the id is only ranked globally; a null scope in queries means the
+ * global ranking. Not thread-safe; callers synchronize.
+ */
+public class ScopedRanking {
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private RankTree global = new RankTree();
+    private final Map<Long, RankTree> byScope = new HashMap<>();
+
+    /**
+     * Set the id's score and scope, replacing any previous ones
+     */
+    public void put(long id, Long scopeId, long score) {
+        remove(id);
+        entries.put(id, new Entry(scopeId, score));
+        global.insert(id, score);
+        if (scopeId != null) {
+            byScope.computeIfAbsent(scopeId, key -> new RankTree()).insert(id, score);
+        }
+    }
+
+    public void remove(long id) {
+        Entry old = entries.remove(id);
+        if (old == null) {
+            return;
+        }
+        global.remove(id, old.score);
+        if (old.scopeId != null) {
+            RankTree tree = byScope.get(old.scopeId);
+            tree.remove(id, old.score);
+            if (tree.size() == 0) {
+                byScope.remove(old.scopeId);
+            }
+        }
+    }
+
+    /**
+     * Current score, or null if the id is not ranked
+     */
+    public Long scoreOf(long id) {
+        Entry entry = entries.get(id);
+        return entry == null ? null : entry.score;
+    }
+
+    /**
+     * Zero-based rank within the scope, or -1 if the id is not ranked there
+     */
+    public int rankOf(long id, Long scopeId) {
+        Entry entry = entries.get(id);
+        RankTree tree = tree(scopeId);
+        if (entry == null || tree == null) {
+            return -1;
+        }
+        return tree.rankOf(id, entry.score);
+    }
+
+    public int size(Long scopeId) {
+        RankTree tree = tree(scopeId);
+        return tree == null ? 0 : tree.size();
+    }
+
+    public long idAt(Long scopeId, int rank) {
+        return tree(scopeId).idAt(rank);
+    }
+
+    public long scoreAt(Long scopeId, int rank) {
+        return tree(scopeId).scoreAt(rank);
+    }
+
+    public void clear() {
+        entries.clear();
+        byScope.clear();
+        global = new RankTree();
+    }
+
+    private RankTree tree(Long scopeId) {
+        return scopeId == null ? global : byScope.get(scopeId);
+    }
+
+    private record Entry(Long scopeId, long score) {
+    }
+}
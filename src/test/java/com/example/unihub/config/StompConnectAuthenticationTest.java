@@ -0,0 +1,104 @@
+package com.example.unihub.config;
+
+import com.example.unihub.controller.ChatWebSocketController;
+import com.example.unihub.dto.TypingIndicatorMessage;
+import com.example.unihub.model.User;
+import com.example.unihub.repository.UserRepository;
+import com.example.unihub.security.CustomUserDetailsService;
+import com.example.unihub.security.JwtUtil;
+import com.example.unihub.security.StompAuthChannelInterceptor;
+import com.example.unihub.service.*;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Drives the STOMP endpoint with a session that did not authenticate at the handshake, like the chat
+ * page's SockJS client, and checks that the token in its CONNECT frame is enough for typing frames.
+ */
+@SpringJUnitWebConfig({WebSocketConfig.class, StompAuthChannelInterceptor.class, PresenceService.class,
+        ChatWebSocketController.class})
+class StompConnectAuthenticationTest {
+
+    private static final String TOKEN = "header-token";
+
+    @Autowired
+    @Qualifier("subProtocolWebSocketHandler")
+    private WebSocketHandler webSocketHandler;
+
+    @MockitoBean
+    private JwtUtil jwtUtil;
+
+    @MockitoBean
+    private CustomUserDetailsService userDetailsService;
+
+    @MockitoBean
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private ChatMembershipCache membershipCache;
+
+    @MockitoBean
+    private WebSocketEventPublisher eventPublisher;
+
+    @MockitoBean
+    private ChatService chatService;
+
+    @MockitoBean
+    private UserService userService;
+
+    @Test
+    void typingIsBroadcastForASessionAuthenticatedOnlyByItsConnectHeader() throws Exception {
+        UserDetails alice = org.springframework.security.core.userdetails.User
+                .withUsername("alice@test.com").password("hash").authorities(List.of()).build();
+        User user = new User();
+        user.setUserId(1L);
+        user.setName("Alice");
+        user.setEmail("alice@test.com");
+        when(jwtUtil.extractUsername(TOKEN)).thenReturn("alice@test.com");
+        when(userDetailsService.loadUserByUsername("alice@test.com")).thenReturn(alice);
+        when(jwtUtil.validateToken(TOKEN, alice)).thenReturn(true);
+        when(userRepository.findByEmail("alice@test.com")).thenReturn(Optional.of(user));
+        when(membershipCache.isMember(10L, 1L)).thenReturn(true);
+
+        // No principal from the handshake
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn("ws-1");
+        when(session.isOpen()).thenReturn(true);
+        when(session.getAttributes()).thenReturn(new HashMap<>());
+        webSocketHandler.afterConnectionEstablished(session);
+
+        webSocketHandler.handleMessage(session, frame("CONNECT\naccept-version:1.2\nheart-beat:0,0\n" +
+                "Authorization:Bearer " + TOKEN + "\n\n"));
+        // CONNECTED goes out after the session has been registered with the presence tracker
+        verify(session, timeout(5000)).sendMessage(argThat(m -> ((String) m.getPayload()).startsWith("CONNECTED")));
+
+        webSocketHandler.handleMessage(session, frame("SEND\ndestination:/app/chat.typing\n" +
+                "content-type:application/json\n\n{\"conversationId\":10,\"isTyping\":true}"));
+
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, timeout(5000)).publishCoalesced(eq("/topic/conversation/10/typing"), eq(1L), payload.capture());
+        TypingIndicatorMessage message = (TypingIndicatorMessage) payload.getValue();
+        assertEquals("Alice", message.getUserName());
+        assertTrue(message.getIsTyping());
+    }
+
+    private static TextMessage frame(String frame) {
+        return new TextMessage(frame + "\0");
+    }
+}
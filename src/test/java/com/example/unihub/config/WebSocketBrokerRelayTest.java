@@ -0,0 +1,132 @@
+package com.example.unihub.config;
+
+import com.example.unihub.security.CustomUserDetailsService;
+import com.example.unihub.security.JwtUtil;
+import com.example.unihub.security.StompAuthChannelInterceptor;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.*;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.ServerSocket;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Boots the WebSocket configuration in relay mode against an embedded Artemis STOMP broker and
+ * checks that a message published by this instance reaches a subscriber connected to the broker,
+ * which is what lets every replica behind a load balancer see the same chat and leaderboard pushes.
+ */
+@SpringJUnitWebConfig({WebSocketConfig.class, StompAuthChannelInterceptor.class})
+class WebSocketBrokerRelayTest {
+
+    @MockitoBean
+    private JwtUtil jwtUtil;
+
+    @MockitoBean
+    private CustomUserDetailsService userDetailsService;
+
+    private static EmbeddedActiveMQ broker;
+    private static int brokerPort;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private StompBrokerRelayMessageHandler relayHandler;
+
+    @DynamicPropertySource
+    static void brokerProperties(DynamicPropertyRegistry registry) throws Exception {
+        startBroker();
+        registry.add("app.websocket.broker.mode", () -> "relay");
+        registry.add("app.websocket.broker.relay-host", () -> "127.0.0.1");
+        registry.add("app.websocket.broker.relay-port", () -> brokerPort);
+    }
+
+    @AfterAll
+    static void stopBroker() throws Exception {
+        if (broker != null) {
+            broker.stop();
+        }
+    }
+
+    @Test
+    void publishedMessagesAreRelayedToBrokerSubscribers() throws Exception {
+        waitFor(relayHandler::isBrokerAvailable);
+
+        ReactorNettyTcpStompClient client = new ReactorNettyTcpStompClient("127.0.0.1", brokerPort);
+        client.setMessageConverter(new StringMessageConverter());
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.setLogin("guest");
+        connectHeaders.setPasscode("guest");
+        StompSession session = client.connectAsync(connectHeaders, new StompSessionHandlerAdapter() { })
+                .get(10, TimeUnit.SECONDS);
+        try {
+            session.subscribe("/topic/leaderboard-update", new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return String.class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    received.add((String) payload);
+                }
+            });
+
+            // The subscription is asynchronous, so keep publishing until the first copy arrives
+            String message = null;
+            for (int attempt = 0; attempt < 50 && message == null; attempt++) {
+                messagingTemplate.convertAndSend("/topic/leaderboard-update", "relayed");
+                message = received.poll(200, TimeUnit.MILLISECONDS);
+            }
+            assertEquals("relayed", message);
+        } finally {
+            session.disconnect();
+            client.shutdown();
+        }
+    }
+
+    private static void startBroker() throws Exception {
+        if (broker != null) {
+            return;
+        }
+        brokerPort = freePort();
+        ConfigurationImpl configuration = new ConfigurationImpl();
+        configuration.setPersistenceEnabled(false);
+        configuration.setSecurityEnabled(false);
+        configuration.addAcceptorConfiguration("stomp",
+                "tcp://127.0.0.1:" + brokerPort + "?protocols=STOMP;anycastPrefix=/queue/;multicastPrefix=/topic/");
+        broker = new EmbeddedActiveMQ();
+        broker.setConfiguration(configuration);
+        broker.start();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 100 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(100);
+        }
+        assertTrue(condition.getAsBoolean(), "STOMP broker relay did not connect");
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.unihub.service;
+
+import com.example.unihub.model.Badge;
+import com.example.unihub.repository.BadgeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BadgeCatalogTest {
+
+    private BadgeRepository badgeRepository;
+    private BadgeCatalog catalog;
+    private final List<Badge> badges = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        badgeRepository = mock(BadgeRepository.class);
+        when(badgeRepository.findAllByOrderByPointsThresholdAsc()).thenAnswer(invocation -> List.copyOf(badges));
+        catalog = new BadgeCatalog(badgeRepository);
+
+        badges.add(badge(1L, "Explorer", 10));
+        badges.add(badge(2L, "Rising Star", 100));
+        badges.add(badge(3L, "Champion", 500));
+    }
+
+    @Test
+    void resolvesHighestThresholdAtOrBelowPoints() {
+        assertNull(catalog.resolve(0));
+        assertEquals("Explorer", catalog.resolve(10).getName());
+        assertEquals("Explorer", catalog.resolve(99).getName());
+        assertEquals("Rising Star", catalog.resolve(100).getName());
+        assertEquals("Champion", catalog.resolve(100_000).getName());
+
+        // One load serves every lookup
+        verify(badgeRepository, times(1)).findAllByOrderByPointsThresholdAsc();
+    }
+
+    @Test
+    void sharedThresholdsResolveToTheLastBadge() {
+        badges.add(2, badge(4L, "Rising Star II", 100));
+
+        assertEquals("Rising Star II", catalog.resolve(100).getName());
+        assertEquals("Rising Star II", catalog.resolve(101).getName());
+    }
+
+    @Test
+    void changesOutsideATransactionTakeEffectOnNextLookup() {
+        assertNull(catalog.resolve(5));
+
+        Badge newcomer = badge(5L, "Newcomer", 0);
+        badges.add(0, newcomer);
+        catalog.onBadgeChanged(newcomer);
+
+        assertEquals("Newcomer", catalog.resolve(5).getName());
+        assertEquals(4, catalog.all().size());
+    }
+
+    private static Badge badge(Long id, String name, int threshold) {
+        Badge badge = new Badge();
+        badge.setBadgeId(id);
+        badge.setName(name);
+        badge.setPointsThreshold(threshold);
+        return badge;
+    }
+}
@@ -0,0 +1,338 @@
+package com.example.unihub.service;
+
+import com.example.unihub.dto.ConversationResponse;
+import com.example.unihub.dto.MessageResponse;
+import com.example.unihub.dto.SendMessageRequest;
+import com.example.unihub.enums.UserRole;
+import com.example.unihub.model.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Tests flush the read-state buffer themselves, inside the test transaction
+        "app.chat.read-state.flush-interval-ms=3600000"
+})
+@Import({ChatService.class, MessageResponseAssembler.class, ChatMembershipCache.class, ReadStateBuffer.class})
+class ChatServiceTest {
+
+    private static final int MESSAGE_COUNT = 60;
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private ReadStateBuffer readStateBuffer;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private WebSocketEventPublisher eventPublisher;
+
+    private Long conversationId;
+    private Long aliceId;
+    private Long bobId;
+
+    @BeforeEach
+    void setUp() {
+        // The buffer outlives each test's rolled-back data; drain whatever earlier tests left behind
+        readStateBuffer.flush();
+
+        User alice = persistUser("Alice", "alice@test.com");
+        User bob = persistUser("Bob", "bob@test.com");
+        aliceId = alice.getUserId();
+        bobId = bob.getUserId();
+
+        Conversation conversation = new Conversation();
+        conversation.setCreatedBy(alice);
+        entityManager.persist(conversation);
+        conversationId = conversation.getConversationId();
+
+        persistParticipant(conversation, alice).setUnreadCount((long) MESSAGE_COUNT / 2);
+        persistParticipant(conversation, bob);
+
+        Message previous = null;
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            Message message = new Message();
+            message.setConversation(conversation);
+            message.setSender(i % 2 == 0 ? alice : bob);
+            message.setContent("Message " + i);
+            message.setReplyToMessage(previous);
+            entityManager.persist(message);
+
+            MessageReaction reaction = new MessageReaction();
+            reaction.setMessage(message);
+            reaction.setUser(i % 2 == 0 ? bob : alice);
+            reaction.setEmoji("👍");
+            entityManager.persist(reaction);
+
+            MessageReadReceipt receipt = new MessageReadReceipt();
+            receipt.setMessage(message);
+            receipt.setUser(i % 2 == 0 ? bob : alice);
+            entityManager.persist(receipt);
+
+            previous = message;
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void getMessagesStatementCountDoesNotGrowWithPageSize() {
+        // Warm the membership cache so both measurements only cover the page itself
+        chatService.getMessages(conversationId, aliceId, 0, 1);
+        long smallPageStatements = countStatements(5);
+        long largePageStatements = countStatements(50);
+
+        assertEquals(smallPageStatements, largePageStatements);
+        // page, count, the (shared) conversation, reactions, read receipts
+        assertTrue(largePageStatements <= 5, "Expected at most 5 statements but was " + largePageStatements);
+    }
+
+    @Test
+    void getMessagesAssemblesReactionsAndReceiptsPerMessage() {
+        Page<MessageResponse> page = chatService.getMessages(conversationId, aliceId, 0, 50);
+
+        assertEquals(50, page.getContent().size());
+        assertEquals(MESSAGE_COUNT, page.getTotalElements());
+        for (MessageResponse response : page.getContent()) {
+            assertEquals(1, response.getReactions().get("👍").size());
+            assertEquals(1, response.getReadBy().size());
+            assertNotEquals(response.getSender().getUserId(), response.getReadBy().get(0).getUserId());
+            assertNotNull(response.getReplyToMessage());
+        }
+    }
+
+    @Test
+    void getMessageHistoryWalksBackWithoutGapsOrCountQuery() {
+        Set<Long> seen = new HashSet<>();
+        Long cursor = null;
+        long firstPageStatements = -1;
+        long lastPageStatements = -1;
+        Slice<MessageResponse> slice;
+        chatService.getMessageHistory(conversationId, aliceId, null, 1);
+        do {
+            entityManager.clear();
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            slice = chatService.getMessageHistory(conversationId, aliceId, cursor, 25);
+
+            lastPageStatements = statistics.getPrepareStatementCount();
+            if (firstPageStatements < 0) {
+                firstPageStatements = lastPageStatements;
+            }
+            slice.getContent().forEach(m -> assertTrue(seen.add(m.getMessageId())));
+            cursor = slice.getContent().get(slice.getContent().size() - 1).getMessageId();
+        } while (slice.hasNext());
+
+        assertEquals(MESSAGE_COUNT, seen.size());
+        assertEquals(firstPageStatements, lastPageStatements);
+    }
+
+    @Test
+    void getUserConversationsStatementCountDoesNotGrowWithInboxSize() {
+        long singleConversationStatements = countInboxStatements(1);
+
+        User alice = entityManager.find(User.class, aliceId);
+        for (int i = 0; i < 20; i++) {
+            User other = persistUser("Other " + i, "other" + i + "@test.com");
+            Conversation conversation = new Conversation();
+            conversation.setCreatedBy(other);
+            entityManager.persist(conversation);
+            persistParticipant(conversation, alice);
+            persistParticipant(conversation, other);
+
+            Message message = new Message();
+            message.setConversation(conversation);
+            message.setSender(other);
+            message.setContent("Hi " + i);
+            entityManager.persist(message);
+        }
+        entityManager.flush();
+
+        long fullInboxStatements = countInboxStatements(21);
+
+        assertEquals(singleConversationStatements, fullInboxStatements);
+    }
+
+    @Test
+    void inboxLimitIsClampedInsteadOfReturningNothing() {
+        assertEquals(1, chatService.getUserConversations(aliceId, null, null, 0).size());
+        assertEquals(1, chatService.getUserConversations(aliceId, null, null, -5).size());
+    }
+
+    @Test
+    void getUserConversationsReturnsLastMessageAndUnreadCount() {
+        List<ConversationResponse> inbox = chatService.getUserConversations(aliceId);
+
+        assertEquals(1, inbox.size());
+        ConversationResponse response = inbox.get(0);
+        assertEquals(2, response.getParticipants().size());
+        assertEquals("Message " + (MESSAGE_COUNT - 1), response.getLastMessage().getContent());
+        assertEquals(MESSAGE_COUNT / 2, response.getUnreadCount());
+    }
+
+    @Test
+    void unreadCountersFollowSendReadAndDelete() {
+        SendMessageRequest request = new SendMessageRequest();
+        request.setConversationId(conversationId);
+        request.setContent("New message");
+        MessageResponse sent = chatService.sendMessage(request, aliceId);
+        chatService.sendMessage(request, aliceId);
+
+        assertEquals(2, unreadCount(bobId));
+        assertEquals(MESSAGE_COUNT / 2, unreadCount(aliceId));
+        verify(eventPublisher, times(2)).publishCoalesced(eq("/topic/chat-unread/" + bobId),
+                eq(conversationId), any());
+
+        chatService.deleteMessage(sent.getMessageId(), aliceId);
+        assertEquals(1, unreadCount(bobId));
+        chatService.deleteMessage(sent.getMessageId(), aliceId);
+        assertEquals(1, unreadCount(bobId));
+
+        chatService.markAsRead(conversationId, bobId);
+        assertEquals(0, unreadCount(bobId));
+    }
+
+    @Test
+    void bufferedReadsAreCoalescedAndFlushedInOneBatch() {
+        chatService.markAsRead(conversationId, bobId);
+        chatService.markAsRead(conversationId, bobId);
+        chatService.markAsRead(conversationId, aliceId);
+        assertEquals(0, unreadCount(aliceId));
+
+        // Sent after Bob's buffered read, so it must still count as unread once the read is written
+        SendMessageRequest request = new SendMessageRequest();
+        request.setConversationId(conversationId);
+        request.setContent("After the read");
+        chatService.sendMessage(request, aliceId);
+        assertEquals(1, unreadCount(bobId));
+
+        assertEquals(2, readStateBuffer.flush());
+        assertEquals(0, readStateBuffer.flush());
+        assertNull(readStateBuffer.pendingReadAt(conversationId, bobId));
+        assertEquals(1, unreadCount(bobId));
+        assertEquals(0, unreadCount(aliceId));
+        // One receipt per reader, in the payload shape clients already handle
+        verify(eventPublisher, times(1)).publishCoalesced(eq("/topic/conversation/" + conversationId + "/read"), eq(bobId),
+                argThat(payload -> payload instanceof Map<?, ?> map && bobId.equals(map.get("userId")) && map.containsKey("readAt")));
+        verify(eventPublisher, times(1)).publishCoalesced(eq("/topic/conversation/" + conversationId + "/read"), eq(aliceId), any());
+        verify(eventPublisher, never()).publish(eq("/topic/conversation/" + conversationId + "/read"), any());
+    }
+
+    @Test
+    void sendMessageOnlyRunsItsOwnWritesOnceMembershipIsCached() {
+        SendMessageRequest request = new SendMessageRequest();
+        request.setConversationId(conversationId);
+        request.setContent("Warm up");
+        chatService.sendMessage(request, aliceId);
+
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        request.setContent("Hello");
+        MessageResponse response = chatService.sendMessage(request, aliceId);
+        entityManager.flush();
+
+        assertEquals("Alice", response.getSender().getName());
+        assertTrue(response.getReactions().isEmpty());
+        // message insert, conversation timestamp, unread counters, unread fan-out
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void nonParticipantCannotSend() {
+        User mallory = persistUser("Mallory", "mallory@test.com");
+        SendMessageRequest request = new SendMessageRequest();
+        request.setConversationId(conversationId);
+        request.setContent("Let me in");
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> chatService.sendMessage(request, mallory.getUserId()));
+        assertEquals("Not a participant", error.getMessage());
+    }
+
+    @Test
+    void conversationSearchMatchesEveryWordAsAPrefix() {
+        assertEquals("'hel':* & 'wor':*", ChatService.toPrefixQuery("  Hel, WOR!"));
+        assertEquals("'don':* & 't':*", ChatService.toPrefixQuery("don't"));
+        assertEquals("", ChatService.toPrefixQuery("&|!:*"));
+    }
+
+    private long unreadCount(Long userId) {
+        entityManager.flush();
+        entityManager.clear();
+        return chatService.getUserConversations(userId).get(0).getUnreadCount();
+    }
+
+    private long countInboxStatements(int expectedConversations) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ConversationResponse> inbox = chatService.getUserConversations(aliceId);
+        assertEquals(expectedConversations, inbox.size());
+        inbox.forEach(c -> assertNotNull(c.getLastMessage()));
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long countStatements(int pageSize) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<MessageResponse> page = chatService.getMessages(conversationId, aliceId, 0, pageSize);
+        assertEquals(pageSize, page.getContent().size());
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private User persistUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        user.setPasswordHash("hash");
+        user.setRole(UserRole.STUDENT);
+        return entityManager.persist(user);
+    }
+
+    private ConversationParticipant persistParticipant(Conversation conversation, User user) {
+        ConversationParticipant participant = new ConversationParticipant();
+        participant.setConversation(conversation);
+        participant.setUser(user);
+        return entityManager.persist(participant);
+    }
+}
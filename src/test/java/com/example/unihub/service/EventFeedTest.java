@@ -0,0 +1,117 @@
+package com.example.unihub.service;
+
+import com.example.unihub.dto.request.EventFeedFilter;
+import com.example.unihub.dto.response.EventFeedResponse;
+import com.example.unihub.dto.response.EventSummaryResponse;
+import com.example.unihub.enums.EventStatus;
+import com.example.unihub.enums.UserRole;
+import com.example.unihub.model.Event;
+import com.example.unihub.model.University;
+import com.example.unihub.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({EventService.class, EventWaitlistService.class, NotificationFanoutService.class})
+class EventFeedTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockitoBean
+    private GamificationService gamificationService;
+
+    @MockitoBean
+    private GamificationOutboxService gamificationOutboxService;
+
+    @MockitoBean
+    private EventLeaderboardIndex eventLeaderboardIndex;
+
+    private University campus;
+    private User creator;
+    private final List<Long> newestFirst = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        campus = new University();
+        campus.setName("Campus");
+        entityManager.persist(campus);
+        creator = new User();
+        creator.setName("Creator");
+        creator.setEmail("creator@feed.test");
+        creator.setPasswordHash("hash");
+        creator.setRole(UserRole.STUDENT);
+        entityManager.persist(creator);
+
+        // Seven events; the middle three share a creation time so the event id breaks the tie
+        int[] minutes = {0, 1, 2, 2, 2, 3, 4};
+        for (int i = 0; i < minutes.length; i++) {
+            Event event = new Event();
+            event.setTitle("Event " + i);
+            event.setType(i % 2 == 0 ? "WORKSHOP" : "TALK");
+            event.setStatus(i == 6 ? EventStatus.PENDING : EventStatus.APPROVED);
+            event.setUniversity(i == 0 ? null : campus);
+            event.setCreator(creator);
+            event.setStartDate(BASE.plusDays(i));
+            event.setEndDate(BASE.plusDays(i).plusHours(2));
+            entityManager.persistAndFlush(event);
+            jdbcTemplate.update("UPDATE events SET created_at = ? WHERE event_id = ?",
+                    BASE.plusMinutes(minutes[i]), event.getEventId());
+            newestFirst.add(0, event.getEventId());
+        }
+        entityManager.clear();
+    }
+
+    @Test
+    void cursorsWalkTheWholeFeedWithoutGapsOrRepeats() {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            EventFeedResponse page = eventService.getEventFeed(new EventFeedFilter(), cursor, 2);
+            page.getItems().forEach(item -> seen.add(item.getEventId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(newestFirst, seen);
+        assertEquals(4, pages);
+    }
+
+    @Test
+    void filtersCombineAndEntriesAreSlim() {
+        EventFeedFilter filter = new EventFeedFilter(campus.getUniversityId(), EventStatus.APPROVED, "WORKSHOP",
+                BASE.plusDays(1), BASE.plusDays(5), false);
+        List<EventSummaryResponse> items = eventService.getEventFeed(filter, null, 10).getItems();
+
+        assertEquals(List.of("Event 4", "Event 2"), items.stream().map(EventSummaryResponse::getTitle).toList());
+        assertEquals("Campus", items.get(0).getUniversityName());
+        assertEquals("Creator", items.get(0).getCreatorName());
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThrows(IllegalArgumentException.class,
+                () -> eventService.getEventFeed(new EventFeedFilter(), "not-a-cursor", 10));
+    }
+}
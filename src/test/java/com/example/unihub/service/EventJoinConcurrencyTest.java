@@ -0,0 +1,180 @@
+package com.example.unihub.service;
+
+import com.example.unihub.enums.EventStatus;
+import com.example.unihub.enums.ParticipantRole;
+import com.example.unihub.enums.UserRole;
+import com.example.unihub.model.Event;
+import com.example.unihub.model.EventParticipant;
+import com.example.unihub.model.User;
+import com.example.unihub.repository.EventParticipantRepository;
+import com.example.unihub.repository.EventRepository;
+import com.example.unihub.repository.NotificationRepository;
+import com.example.unihub.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fires thousands of joins at a capped event and an uncapped one in parallel, each in its own
+ * committed transaction, and checks that no role ever ends up over its capacity.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({EventService.class, EventWaitlistService.class, NotificationFanoutService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EventJoinConcurrencyTest {
+
+    private static final int USERS = 1000;
+    private static final int MAX_ATTENDEES = 50;
+    private static final int MAX_VOLUNTEERS = 5;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventParticipantRepository participantRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @MockitoBean
+    private GamificationService gamificationService;
+
+    @MockitoBean
+    private GamificationOutboxService gamificationOutboxService;
+
+    @MockitoBean
+    private EventLeaderboardIndex eventLeaderboardIndex;
+
+    private final List<Long> userIds = new ArrayList<>();
+    private Long cappedEventId;
+    private Long openEventId;
+
+    @BeforeEach
+    void setUp() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setName("Joiner " + i);
+            user.setEmail("joiner" + i + "@test.com");
+            user.setPasswordHash("hash");
+            user.setRole(UserRole.STUDENT);
+            users.add(user);
+        }
+        userRepository.saveAll(users).forEach(user -> userIds.add(user.getUserId()));
+
+        User creator = userRepository.findById(userIds.get(0)).orElseThrow();
+        cappedEventId = persistEvent("Capped", creator, MAX_ATTENDEES, MAX_VOLUNTEERS);
+        openEventId = persistEvent("Open", creator, null, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAllInBatch();
+        participantRepository.deleteAllInBatch();
+        eventRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void parallelJoinsNeverExceedCapacity() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> capped = new ArrayList<>();
+        List<Future<Boolean>> open = new ArrayList<>();
+        try {
+            for (int i = 0; i < USERS; i++) {
+                Long userId = userIds.get(i);
+                ParticipantRole role = i % 10 == 0 ? ParticipantRole.VOLUNTEER : ParticipantRole.ATTENDEE;
+                capped.add(executor.submit(() -> join(start, cappedEventId, userId, role)));
+                open.add(executor.submit(() -> join(start, openEventId, userId, ParticipantRole.ATTENDEE)));
+            }
+            start.countDown();
+            assertEquals(MAX_ATTENDEES + MAX_VOLUNTEERS, succeeded(capped));
+            assertEquals(USERS, succeeded(open));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<EventParticipant> participants = participantRepository.findByEventEventId(cappedEventId);
+        assertEquals(MAX_ATTENDEES, participants.stream().filter(p -> p.getRole() == ParticipantRole.ATTENDEE).count());
+        assertEquals(MAX_VOLUNTEERS, participants.stream().filter(p -> p.getRole() == ParticipantRole.VOLUNTEER).count());
+
+        Event event = eventRepository.findById(cappedEventId).orElseThrow();
+        assertEquals(MAX_ATTENDEES + MAX_VOLUNTEERS, event.getParticipantCount());
+        assertEquals(MAX_ATTENDEES, event.getAttendeeCount());
+        assertEquals(MAX_VOLUNTEERS, event.getVolunteerCount());
+        assertEquals(USERS, eventRepository.findById(openEventId).orElseThrow().getParticipantCount());
+    }
+
+    @Test
+    void leavingFreesTheSlotForTheNextJoin() {
+        Long first = userIds.get(1);
+        Long second = userIds.get(2);
+        Event event = eventRepository.findById(cappedEventId).orElseThrow();
+        event.setMaxAttendees(1);
+        eventRepository.save(event);
+
+        eventService.joinEvent(cappedEventId, first, ParticipantRole.ATTENDEE);
+        assertThrows(IllegalStateException.class,
+                () -> eventService.joinEvent(cappedEventId, second, ParticipantRole.ATTENDEE));
+
+        eventService.leaveEvent(cappedEventId, first);
+        eventService.joinEvent(cappedEventId, second, ParticipantRole.ATTENDEE);
+
+        Event reloaded = eventRepository.findById(cappedEventId).orElseThrow();
+        assertEquals(1, reloaded.getParticipantCount());
+        assertEquals(1, reloaded.getAttendeeCount());
+    }
+
+    private boolean join(CountDownLatch start, Long eventId, Long userId, ParticipantRole role) throws InterruptedException {
+        start.await();
+        try {
+            eventService.joinEvent(eventId, userId, role);
+            return true;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    private int succeeded(List<Future<Boolean>> results) throws Exception {
+        int succeeded = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(60, TimeUnit.SECONDS)) {
+                succeeded++;
+            }
+        }
+        return succeeded;
+    }
+
+    private Long persistEvent(String title, User creator, Integer maxAttendees, Integer maxVolunteers) {
+        Event event = new Event();
+        event.setTitle(title);
+        event.setType("WORKSHOP");
+        event.setStatus(EventStatus.APPROVED);
+        event.setCreator(creator);
+        event.setStartDate(LocalDateTime.now().plusDays(7));
+        event.setEndDate(LocalDateTime.now().plusDays(7).plusHours(2));
+        event.setMaxAttendees(maxAttendees);
+        event.setMaxVolunteers(maxVolunteers);
+        return eventRepository.save(event).getEventId();
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.unihub.service;
+
+import com.example.unihub.enums.EventStatus;
+import com.example.unihub.enums.ParticipantRole;
+import com.example.unihub.enums.UserRole;
+import com.example.unihub.model.*;
+import com.example.unihub.repository.EventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(EventLeaderboardIndex.class)
+class EventLeaderboardIndexTest {
+
+    @Autowired
+    private EventLeaderboardIndex index;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private University university;
+    private Event small;
+    private Event large;
+    private Event pending;
+    private final Set<TransactionSynchronization> applied = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    @BeforeEach
+    void setUp() {
+        university = new University();
+        university.setName("Test University");
+        entityManager.persist(university);
+
+        small = persistEvent("Small", EventStatus.APPROVED, 1);
+        large = persistEvent("Large", EventStatus.APPROVED, 3);
+        pending = persistEvent("Pending", EventStatus.PENDING, 5);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void loadRecountsParticipantsAndRanksApprovedEvents() {
+        index.load();
+
+        assertEquals(List.of(large.getEventId(), small.getEventId()), index.top(null, 10));
+        assertEquals(List.of(large.getEventId()), index.top(university.getUniversityId(), 1));
+        assertEquals(3, index.countOf(large.getEventId()));
+        assertEquals(-1, index.countOf(pending.getEventId()));
+        assertEquals(5, eventRepository.findById(pending.getEventId()).orElseThrow().getParticipantCount());
+    }
+
+    @Test
+    void adjustmentsMoveEventsAndSurviveEntitySaves() {
+        index.load();
+
+        for (int i = 0; i < 3; i++) {
+            eventRepository.reserveSlot(small.getEventId(), ParticipantRole.ATTENDEE.name());
+            index.adjust(small.getEventId(), 1);
+        }
+        runAfterCommitActions();
+        assertEquals(List.of(small.getEventId(), large.getEventId()), index.top(null, 10));
+
+        // A save of a copy loaded before the adjustments must not write its stale counter back
+        Event stale = eventRepository.findById(large.getEventId()).orElseThrow();
+        eventRepository.reserveSlot(large.getEventId(), ParticipantRole.ATTENDEE.name());
+        stale.setTitle("Renamed");
+        eventRepository.saveAndFlush(stale);
+        entityManager.clear();
+        assertEquals(4, eventRepository.findById(large.getEventId()).orElseThrow().getParticipantCount());
+        assertEquals(4, eventRepository.findById(small.getEventId()).orElseThrow().getParticipantCount());
+    }
+
+    @Test
+    void statusChangesAddAndRemoveEvents() {
+        index.load();
+
+        Event approved = eventRepository.findById(pending.getEventId()).orElseThrow();
+        approved.setStatus(EventStatus.APPROVED);
+        index.update(approved);
+        runAfterCommitActions();
+        assertEquals(pending.getEventId(), index.top(null, 1).get(0));
+
+        index.remove(large.getEventId());
+        runAfterCommitActions();
+        assertEquals(List.of(pending.getEventId(), small.getEventId()), index.top(null, 10));
+    }
+
+    // The test transaction never commits, so run the index updates it queued by hand, once each
+    private void runAfterCommitActions() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (applied.add(synchronization)) {
+                synchronization.afterCommit();
+            }
+        }
+    }
+
+    private Event persistEvent(String title, EventStatus status, int participants) {
+        User creator = persistUser(title);
+        Event event = new Event();
+        event.setTitle(title);
+        event.setStatus(status);
+        event.setUniversity(university);
+        event.setCreator(creator);
+        event.setStartDate(LocalDateTime.now().plusDays(1));
+        event.setEndDate(LocalDateTime.now().plusDays(2));
+        entityManager.persist(event);
+
+        // Participants are inserted directly, so the counter starts out of date until load() recounts it
+        for (int i = 0; i < participants; i++) {
+            EventParticipant participant = new EventParticipant();
+            participant.setEvent(event);
+            participant.setUser(persistUser(title + " participant " + i));
+            participant.setRole(ParticipantRole.ATTENDEE);
+            participant.setPointsAwarded(0);
+            entityManager.persist(participant);
+        }
+        return event;
+    }
+
+    private User persistUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name.replace(' ', '.') + "@test.com");
+        user.setPasswordHash("hash");
+        user.setRole(UserRole.STUDENT);
+        return entityManager.persist(user);
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.unihub.service;
+
+import com.example.unihub.dto.request.CreateEventRequest;
+import com.example.unihub.dto.response.WaitlistStatusResponse;
+import com.example.unihub.enums.EventStatus;
+import com.example.unihub.enums.NotificationType;
+import com.example.unihub.enums.ParticipantRole;
+import com.example.unihub.enums.UserRole;
+import com.example.unihub.model.Event;
+import com.example.unihub.model.User;
+import com.example.unihub.repository.EventParticipantRepository;
+import com.example.unihub.repository.EventRepository;
+import com.example.unihub.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({EventService.class, EventWaitlistService.class, NotificationFanoutService.class})
+class EventWaitlistServiceTest {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventWaitlistService waitlistService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventParticipantRepository participantRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockitoBean
+    private GamificationService gamificationService;
+
+    @MockitoBean
+    private GamificationOutboxService gamificationOutboxService;
+
+    @MockitoBean
+    private EventLeaderboardIndex eventLeaderboardIndex;
+
+    private User creator;
+    private User ann;
+    private User ben;
+    private User cat;
+    private User dan;
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        when(gamificationOutboxService.award(anyLong(), anyInt(), anyString(), anyLong(), anyString())).thenReturn(true);
+
+        creator = persistUser("Creator");
+        ann = persistUser("Ann");
+        ben = persistUser("Ben");
+        cat = persistUser("Cat");
+        dan = persistUser("Dan");
+
+        event = new Event();
+        event.setTitle("Hackathon");
+        event.setType("WORKSHOP");
+        event.setStatus(EventStatus.APPROVED);
+        event.setCreator(creator);
+        event.setStartDate(LocalDateTime.now().plusDays(7));
+        event.setEndDate(LocalDateTime.now().plusDays(7).plusHours(2));
+        event.setMaxAttendees(1);
+        event.setAttendeePoints(10);
+        entityManager.persistAndFlush(event);
+
+        eventService.joinEvent(event.getEventId(), ann.getUserId(), ParticipantRole.ATTENDEE);
+    }
+
+    @Test
+    void queuesInArrivalOrderAndRetriesKeepTheirPlace() {
+        assertEquals(1L, queue(ben).getPosition());
+        assertEquals(2L, queue(cat).getPosition());
+        WaitlistStatusResponse danStatus = queue(dan);
+        assertEquals(3L, danStatus.getPosition());
+        assertEquals(3L, danStatus.getQueueLength());
+
+        assertEquals(3L, queue(dan).getPosition());
+        assertEquals(2L, waitlistService.getStatus(event.getEventId(), cat.getUserId()).getPosition());
+    }
+
+    @Test
+    void withdrawingMovesEveryoneBehindUp() {
+        queue(ben);
+        queue(cat);
+        queue(dan);
+
+        waitlistService.leaveWaitlist(event.getEventId(), ben.getUserId());
+        entityManager.flush();
+        entityManager.clear();
+
+        WaitlistStatusResponse danStatus = waitlistService.getStatus(event.getEventId(), dan.getUserId());
+        assertEquals(2L, danStatus.getPosition());
+        assertEquals(2L, danStatus.getQueueLength());
+        assertThrows(IllegalStateException.class, () -> waitlistService.getStatus(event.getEventId(), ben.getUserId()));
+    }
+
+    @Test
+    void leavingOnlyAnnouncesAPenaltyThatWasRecorded() {
+        // The outbox already holds an EVENT_LEAVE for this event and user
+        when(gamificationOutboxService.deduct(anyLong(), anyInt(), anyString(), anyLong(), anyString())).thenReturn(false);
+
+        eventService.leaveEvent(event.getEventId(), ann.getUserId());
+
+        String message = notificationRepository.findByUserUserIdAndTypeOrderByCreatedAtDesc(
+                ann.getUserId(), NotificationType.POINTS_UPDATE).get(0).getMessage();
+        assertFalse(message.contains("Penalty"));
+    }
+
+    @Test
+    void leavingPromotesTheHeadOfTheQueue() {
+        queue(ben);
+        queue(cat);
+
+        eventService.leaveEvent(event.getEventId(), ann.getUserId());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertTrue(participantRepository.existsByEventEventIdAndUserUserId(event.getEventId(), ben.getUserId()));
+        assertEquals(10, participantRepository.findByEventEventIdAndUserUserId(event.getEventId(), ben.getUserId())
+                .orElseThrow().getPointsAwarded());
+        assertTrue(waitlistService.getStatus(event.getEventId(), ben.getUserId()).isJoined());
+        assertEquals(1L, waitlistService.getStatus(event.getEventId(), cat.getUserId()).getPosition());
+        assertEquals(1, notificationRepository.findByUserUserIdAndTypeOrderByCreatedAtDesc(
+                ben.getUserId(), NotificationType.EVENT_UPDATE).size());
+
+        Event reloaded = eventRepository.findById(event.getEventId()).orElseThrow();
+        assertEquals(1, reloaded.getAttendeeCount());
+        assertEquals(1, reloaded.getParticipantCount());
+    }
+
+    @Test
+    void editingAnApprovedEventPromotesNobodyUntilItIsApprovedAgain() {
+        queue(ben);
+        queue(cat);
+        queue(dan);
+
+        // The edit raises capacity but sends the event back to PENDING, which joinEvent would refuse
+        eventService.updateEvent(event.getEventId(), updateRequest(3), creator);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(EventStatus.PENDING, eventRepository.findById(event.getEventId()).orElseThrow().getStatus());
+        assertFalse(participantRepository.existsByEventEventIdAndUserUserId(event.getEventId(), ben.getUserId()));
+        assertEquals(1L, waitlistService.getStatus(event.getEventId(), ben.getUserId()).getPosition());
+        assertEquals(1, eventRepository.findById(event.getEventId()).orElseThrow().getAttendeeCount());
+        verify(gamificationOutboxService, never()).award(eq(ben.getUserId()), anyInt(), anyString(), anyLong(), anyString());
+
+        eventService.approveEvent(event.getEventId());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertTrue(participantRepository.existsByEventEventIdAndUserUserId(event.getEventId(), ben.getUserId()));
+        assertTrue(participantRepository.existsByEventEventIdAndUserUserId(event.getEventId(), cat.getUserId()));
+        assertEquals(1L, waitlistService.getStatus(event.getEventId(), dan.getUserId()).getPosition());
+        assertEquals(3, eventRepository.findById(event.getEventId()).orElseThrow().getAttendeeCount());
+    }
+
+    @Test
+    void queuingForARoleWithRoomJoinsRightAway() {
+        WaitlistStatusResponse status = waitlistService.joinWaitlist(event.getEventId(), ben.getUserId(), ParticipantRole.VOLUNTEER);
+
+        assertTrue(status.isJoined());
+        assertTrue(participantRepository.existsByEventEventIdAndUserUserId(event.getEventId(), ben.getUserId()));
+    }
+
+    private WaitlistStatusResponse queue(User user) {
+        return waitlistService.joinWaitlist(event.getEventId(), user.getUserId(), ParticipantRole.ATTENDEE);
+    }
+
+    private CreateEventRequest updateRequest(int maxAttendees) {
+        CreateEventRequest request = new CreateEventRequest();
+        request.setTitle(event.getTitle());
+        request.setDescription("Bigger room");
+        request.setLocation("Hall B");
+        request.setStartDate(event.getStartDate());
+        request.setEndDate(event.getEndDate());
+        request.setType(event.getType());
+        request.setMaxAttendees(maxAttendees);
+        request.setAttendeePoints(10);
+        return request;
+    }
+
+    private User persistUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name.toLowerCase() + "@waitlist.test");
+        user.setPasswordHash("hash");
+        user.setRole(UserRole.STUDENT);
+        return entityManager.persistAndFlush(user);
+    }
+}
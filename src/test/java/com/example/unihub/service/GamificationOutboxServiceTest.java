@@ -0,0 +1,115 @@
+package com.example.unihub.service;
+
+import com.example.unihub.enums.UserRole;
+import com.example.unihub.model.PointsLog;
+import com.example.unihub.model.User;
+import com.example.unihub.repository.PointsLogRepository;
+import com.example.unihub.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        // Recording a change uses INSERT ... ON CONFLICT, which H2 only parses in PostgreSQL mode
+        "spring.test.database.replace=none",
+        "spring.datasource.url=jdbc:h2:mem:outbox;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        // Tests run the consumer themselves, inside the test transaction
+        "app.gamification.outbox.poll-interval-ms=3600000"
+})
+@Import({GamificationOutboxService.class, GamificationService.class, LeaderboardIndex.class, WindowedLeaderboard.class, PointsHistoryService.class, BadgeCatalog.class})
+class GamificationOutboxServiceTest {
+
+    @Autowired
+    private GamificationOutboxService outboxService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PointsLogRepository pointsLogRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockitoBean
+    private SimpMessagingTemplate messagingTemplate;
+
+    private Long aliceId;
+    private Long bobId;
+
+    @BeforeEach
+    void setUp() {
+        // Drain anything an earlier test left pending
+        outboxService.processPending();
+        aliceId = persistUser("Alice", "alice@outbox.test").getUserId();
+        bobId = persistUser("Bob", "bob@outbox.test").getUserId();
+    }
+
+    @Test
+    void recordsChangesAndAppliesThemInOneBatch() {
+        assertTrue(outboxService.award(aliceId, 30, "BLOG", 1L, "Blog approved"));
+        assertTrue(outboxService.award(aliceId, 10, "EVENT_PARTICIPATION", 7L, "Joined event"));
+        assertTrue(outboxService.award(bobId, 15, "BLOG_REPORT_RESOLVED", 3L, "Report resolved"));
+
+        // Nothing is applied by the requests themselves
+        assertEquals(0, userRepository.findPointsById(aliceId));
+
+        assertEquals(3, outboxService.processPending());
+        assertEquals(40, userRepository.findPointsById(aliceId));
+        assertEquals(15, userRepository.findPointsById(bobId));
+        assertEquals(3, pointsLogRepository.findAll().stream()
+                .filter(log -> List.of(aliceId, bobId).contains(log.getUser().getUserId()))
+                .count());
+    }
+
+    @Test
+    void sameSourceAndUserIsOnlyAppliedOnce() {
+        assertTrue(outboxService.award(aliceId, 30, "BLOG", 1L, "Blog approved"));
+        assertFalse(outboxService.award(aliceId, 30, "BLOG", 1L, "Blog approved again"));
+        assertTrue(outboxService.award(bobId, 30, "BLOG", 1L, "Same blog, other user"));
+
+        assertEquals(2, outboxService.processPending());
+        assertEquals(0, outboxService.processPending());
+        assertFalse(outboxService.award(aliceId, 30, "BLOG", 1L, "After processing"));
+
+        assertEquals(30, userRepository.findPointsById(aliceId));
+    }
+
+    @Test
+    void changesForOneUserApplyInOrderAndNeverGoBelowZero() {
+        outboxService.award(aliceId, 10, "EVENT_PARTICIPATION", 7L, "Joined event");
+        outboxService.deduct(aliceId, 20, "EVENT_LEAVE", 7L, "Left event");
+        outboxService.award(aliceId, 5, "BLOG", 2L, "Blog approved");
+
+        outboxService.processPending();
+
+        assertEquals(5, userRepository.findPointsById(aliceId));
+        List<Integer> logged = pointsLogRepository.findAll().stream()
+                .filter(log -> log.getUser().getUserId().equals(aliceId))
+                .map(PointsLog::getPoints)
+                .toList();
+        assertEquals(List.of(10, -20, 5), logged);
+    }
+
+    private User persistUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        user.setPasswordHash("hash");
+        user.setRole(UserRole.STUDENT);
+        return entityManager.persistAndFlush(user);
+    }
+}
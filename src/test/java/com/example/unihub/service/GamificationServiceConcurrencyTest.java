@@ -0,0 +1,133 @@
+package com.example.unihub.service;
+
+import com.example.unihub.enums.UserRole;
+import com.example.unihub.model.Badge;
+import com.example.unihub.model.PointsLog;
+import com.example.unihub.model.User;
+import com.example.unihub.repository.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs hundreds of awards and deductions for one user in parallel, each on its own stale copy of
+ * the user and in its own committed transaction, and checks that none of them is lost.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({GamificationService.class, LeaderboardIndex.class, WindowedLeaderboard.class, PointsHistoryService.class, BadgeCatalog.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class GamificationServiceConcurrencyTest {
+
+    private static final int STARTING_POINTS = 1000;
+    private static final int AWARDS = 300;
+    private static final int DEDUCTIONS = 100;
+
+    @Autowired
+    private GamificationService gamificationService;
+
+    @Autowired
+    private LeaderboardIndex leaderboardIndex;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BadgeRepository badgeRepository;
+
+    @Autowired
+    private PointsLogRepository pointsLogRepository;
+
+    @Autowired
+    private UserBadgeRepository userBadgeRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @MockitoBean
+    private SimpMessagingTemplate messagingTemplate;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        persistBadge("Contributor", STARTING_POINTS);
+        persistBadge("Champion", STARTING_POINTS + 300);
+
+        User user = new User();
+        user.setName("Busy User");
+        user.setEmail("busy@test.com");
+        user.setPasswordHash("hash");
+        user.setRole(UserRole.STUDENT);
+        user.setPoints(STARTING_POINTS);
+        userId = userRepository.save(user).getUserId();
+        leaderboardIndex.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAll();
+        userBadgeRepository.deleteAll();
+        pointsLogRepository.deleteAll();
+        userRepository.deleteAll();
+        badgeRepository.deleteAll();
+    }
+
+    @Test
+    void parallelAwardsAndDeductionsAreNeverLost() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < AWARDS + DEDUCTIONS; i++) {
+                boolean award = i % 4 != 3;
+                // Every call gets its own copy, loaded before any of the others commit
+                User copy = userRepository.findById(userId).orElseThrow();
+                results.add(executor.submit(() -> {
+                    start.await();
+                    if (award) {
+                        gamificationService.awardPoints(copy, 2, "TEST", null, "award");
+                    } else {
+                        gamificationService.deductPoints(copy, 1, "TEST", null, "penalty");
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int expected = STARTING_POINTS + AWARDS * 2 - DEDUCTIONS;
+        assertEquals(expected, userRepository.findPointsById(userId));
+
+        List<PointsLog> logs = pointsLogRepository.findAll();
+        assertEquals(AWARDS + DEDUCTIONS, logs.size());
+        assertEquals(AWARDS * 2 - DEDUCTIONS, logs.stream().mapToInt(PointsLog::getPoints).sum());
+
+        assertEquals(expected, leaderboardIndex.find(userId).points());
+        assertEquals("Champion", userRepository.findById(userId).orElseThrow().getCurrentBadge().getName());
+    }
+
+    private void persistBadge(String name, int threshold) {
+        Badge badge = new Badge();
+        badge.setName(name);
+        badge.setPointsThreshold(threshold);
+        badgeRepository.save(badge);
+    }
+}
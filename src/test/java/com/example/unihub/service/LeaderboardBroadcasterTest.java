@@ -0,0 +1,83 @@
+package com.example.unihub.service;
+
+import com.example.unihub.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class LeaderboardBroadcasterTest {
+
+    private LeaderboardIndex index;
+    private WebSocketEventPublisher eventPublisher;
+    private LeaderboardBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        UserRepository userRepository = mock(UserRepository.class);
+        // Users 1..10 with 10, 20, ..., 100 points
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            rows.add(new Object[]{id, 1L, (int) id * 10});
+        }
+        when(userRepository.findLeaderboardStandings()).thenReturn(rows);
+        index = new LeaderboardIndex(userRepository);
+        eventPublisher = mock(WebSocketEventPublisher.class);
+        broadcaster = new LeaderboardBroadcaster(index, eventPublisher, 3);
+        index.rebuild();
+        broadcaster.flush();
+        reset(eventPublisher);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void changesWithinOneWindowAreSentAsOneDelta() {
+        index.update(1L, 1L, 55);
+        index.update(1L, 1L, 95);
+        index.update(2L, 1L, 25);
+        index.remove(3L);
+
+        assertTrue(broadcaster.flush());
+        assertFalse(broadcaster.flush());
+
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(1)).publish(eq(LeaderboardBroadcaster.DESTINATION), payload.capture());
+        Map<String, Object> event = (Map<String, Object>) payload.getValue();
+        assertEquals(false, event.get("full"));
+        assertEquals(List.of(
+                Map.of("userId", 1L, "points", 95, "rank", 2),
+                Map.of("userId", 2L, "points", 25, "rank", 9)), event.get("changes"));
+        assertEquals(List.of(3L), event.get("removed"));
+        assertEquals(Map.of("from", 2, "to", 10), event.get("affectedRanks"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void burstsLargerThanTheDeltaLimitSendAFullRefresh() {
+        for (long id = 1; id <= 4; id++) {
+            index.update(id, 1L, 1000 + (int) id);
+        }
+
+        broadcaster.flush();
+
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher).publish(eq(LeaderboardBroadcaster.DESTINATION), payload.capture());
+        Map<String, Object> event = (Map<String, Object>) payload.getValue();
+        assertEquals(true, event.get("full"));
+        assertFalse(event.containsKey("changes"));
+    }
+
+    @Test
+    void nothingIsSentWithoutChanges() {
+        assertFalse(broadcaster.flush());
+        verify(eventPublisher, never()).publish(any(), any());
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.unihub.service;
+
+import com.example.unihub.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LeaderboardIndexTest {
+
+    private LeaderboardIndex index;
+
+    @BeforeEach
+    void setUp() {
+        UserRepository userRepository = mock(UserRepository.class);
+        // Users 1..10 with 10, 20, ..., 100 points; odd ids at university 1, even ids at university 2
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            rows.add(new Object[]{id, id % 2 == 1 ? 1L : 2L, (int) id * 10});
+        }
+        when(userRepository.findLeaderboardStandings()).thenReturn(rows);
+        index = new LeaderboardIndex(userRepository);
+        index.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void ranksGloballyAndPerUniversity() {
+        assertEquals(1, index.rankOf(10L, null));
+        assertEquals(10, index.rankOf(1L, null));
+        assertEquals(1, index.rankOf(9L, 1L));
+        assertEquals(-1, index.rankOf(9L, 2L));
+
+        List<LeaderboardIndex.RankedUser> top = index.top(null, 0, 3);
+        assertEquals(List.of(10L, 9L, 8L), top.stream().map(LeaderboardIndex.RankedUser::userId).toList());
+        assertEquals(List.of(1, 2, 3), top.stream().map(LeaderboardIndex.RankedUser::rank).toList());
+        assertEquals(5, index.size(2L));
+    }
+
+    @Test
+    void aroundReturnsNeighboursClippedAtTheEdges() {
+        List<Long> around = index.around(5L, null, 2).stream().map(LeaderboardIndex.RankedUser::userId).toList();
+        assertEquals(List.of(7L, 6L, 5L, 4L, 3L), around);
+
+        List<Long> top = index.around(10L, null, 2).stream().map(LeaderboardIndex.RankedUser::userId).toList();
+        assertEquals(List.of(10L, 9L, 8L), top);
+    }
+
+    @Test
+    void updatesMoveUsersAndUniversities() {
+        index.update(1L, 2L, 1000);
+
+        assertEquals(1, index.rankOf(1L, null));
+        assertEquals(1, index.rankOf(1L, 2L));
+        assertEquals(-1, index.rankOf(1L, 1L));
+        assertEquals(4, index.size(1L));
+
+        index.remove(1L);
+        assertEquals(-1, index.rankOf(1L, null));
+        assertEquals(9, index.size(null));
+    }
+
+    @Test
+    void versionTagChangesOnEveryUpdate() {
+        String before = index.getVersionTag();
+        index.update(1L, 1L, 1000);
+        String after = index.getVersionTag();
+        assertNotEquals(before, after);
+        assertEquals(after, index.getVersionTag());
+    }
+
+    @Test
+    void updatesInsideTransactionWaitForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        index.update(1L, 1L, 1000);
+        assertEquals(10, index.rankOf(1L, null));
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        assertEquals(1, index.rankOf(1L, null));
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.unihub.service;
+
+import com.example.unihub.repository.PointsLogRepository;
+import com.example.unihub.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LeaderboardSnapshotServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private Path path;
+    private UserRepository userRepository;
+    private PointsLogRepository pointsLogRepository;
+
+    @BeforeEach
+    void setUp() {
+        path = dir.resolve("leaderboard.snapshot");
+        userRepository = mock(UserRepository.class);
+        pointsLogRepository = mock(PointsLogRepository.class);
+        // Users 1..5 with 10, 20, ..., 50 points at university 1
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            rows.add(new Object[]{id, 1L, (int) id * 10});
+        }
+        when(userRepository.findLeaderboardStandings()).thenReturn(rows);
+        when(userRepository.findMaxUserId()).thenReturn(5L);
+        when(pointsLogRepository.findMaxId()).thenReturn(100L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void restartLoadsSnapshotAndReReadsOnlyChangedUsers() {
+        startInstance().load();
+        assertTrue(Files.exists(path));
+        verify(userRepository, times(1)).findLeaderboardStandings();
+
+        // User 1 earned points and user 6 registered after the snapshot
+        when(userRepository.findLeaderboardStandingsChangedSince(eq(100L), eq(5L), any(LocalDateTime.class)))
+                .thenReturn(List.of(new Object[]{1L, 1L, 90}, new Object[]{6L, null, 0}));
+        LeaderboardIndex restarted = new LeaderboardIndex(userRepository);
+        new LeaderboardSnapshotService(restarted, userRepository, pointsLogRepository, path.toString(), 300).load();
+
+        verify(userRepository, times(1)).findLeaderboardStandings();
+        assertEquals(1, restarted.rankOf(1L, 1L));
+        assertEquals(6, restarted.size(null));
+        assertEquals(5, restarted.size(1L));
+    }
+
+    @Test
+    void corruptSnapshotFallsBackToFullRebuild() throws IOException {
+        Files.writeString(path, "garbage");
+        LeaderboardIndex index = new LeaderboardIndex(userRepository);
+        new LeaderboardSnapshotService(index, userRepository, pointsLogRepository, path.toString(), 300).load();
+
+        verify(userRepository).findLeaderboardStandings();
+        verify(userRepository, never()).findLeaderboardStandingsChangedSince(anyLong(), anyLong(), any());
+        assertEquals(5, index.size(null));
+        // The rebuilt standings replace the corrupt file
+        assertTrue(Files.size(path) > "garbage".length());
+    }
+
+    @Test
+    void changesOutsidePointsLogDeleteTheSnapshot() {
+        LeaderboardIndex index = new LeaderboardIndex(userRepository);
+        LeaderboardSnapshotService service =
+                new LeaderboardSnapshotService(index, userRepository, pointsLogRepository, path.toString(), 300);
+        service.load();
+
+        // A registration after the snapshot is covered by the restart query
+        index.update(6L, 1L, 0);
+        assertTrue(Files.exists(path));
+
+        // A university change of an existing user is not
+        index.update(2L, 2L, 20);
+        assertFalse(Files.exists(path));
+        assertTrue(service.writeSnapshot());
+        assertTrue(Files.exists(path));
+    }
+
+    private LeaderboardSnapshotService startInstance() {
+        return new LeaderboardSnapshotService(new LeaderboardIndex(userRepository), userRepository,
+                pointsLogRepository, path.toString(), 300);
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.unihub.service;
+
+import com.example.unihub.enums.EventStatus;
+import com.example.unihub.enums.NotificationType;
+import com.example.unihub.enums.ParticipantRole;
+import com.example.unihub.enums.UserRole;
+import com.example.unihub.model.Event;
+import com.example.unihub.model.EventParticipant;
+import com.example.unihub.model.Notification;
+import com.example.unihub.model.NotificationFanoutJob;
+import com.example.unihub.model.User;
+import com.example.unihub.repository.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Chunks commit one by one here, so a job can be stopped between two of them like a crashed worker.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.notifications.fanout.poll-interval-ms=3600000",
+        "app.notifications.fanout.chunk-size=10",
+        "app.notifications.fanout.jdbc-batch-size=4"
+})
+@Import({EventService.class, EventWaitlistService.class, NotificationFanoutService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NotificationFanoutServiceTest {
+
+    private static final int PARTICIPANTS = 25;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private NotificationFanoutService fanoutService;
+
+    @Autowired
+    private NotificationFanoutJobRepository jobRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private EventParticipantRepository participantRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private GamificationService gamificationService;
+
+    @MockitoBean
+    private GamificationOutboxService gamificationOutboxService;
+
+    @MockitoBean
+    private EventLeaderboardIndex eventLeaderboardIndex;
+
+    private final List<Long> userIds = new ArrayList<>();
+    private Long eventId;
+
+    @BeforeEach
+    void setUp() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < PARTICIPANTS; i++) {
+            User user = new User();
+            user.setName("Attendee " + i);
+            user.setEmail("attendee" + i + "@fanout.test");
+            user.setPasswordHash("hash");
+            user.setRole(UserRole.STUDENT);
+            users.add(user);
+        }
+        userRepository.saveAll(users).forEach(user -> userIds.add(user.getUserId()));
+
+        Event event = new Event();
+        event.setTitle("Gala");
+        event.setType("SOCIAL");
+        event.setStatus(EventStatus.APPROVED);
+        event.setCreator(users.get(0));
+        event.setStartDate(LocalDateTime.now().plusDays(7));
+        event.setEndDate(LocalDateTime.now().plusDays(7).plusHours(2));
+        event = eventRepository.save(event);
+        eventId = event.getEventId();
+
+        List<EventParticipant> participants = new ArrayList<>();
+        for (User user : users) {
+            EventParticipant participant = new EventParticipant();
+            participant.setEvent(event);
+            participant.setUser(user);
+            participant.setRole(ParticipantRole.ATTENDEE);
+            participant.setPointsAwarded(0);
+            participants.add(participant);
+        }
+        participantRepository.saveAll(participants);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobRepository.deleteAllInBatch();
+        notificationRepository.deleteAllInBatch();
+        participantRepository.deleteAllInBatch();
+        eventRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void cancellingQueuesTheFanOutAndTheWorkerNotifiesEveryParticipantOnce() {
+        eventService.cancelEvent(eventId, "Venue flooded");
+        assertEquals(0, notificationRepository.count());
+        verify(gamificationService, never()).sendDashboardUpdate(anyLong());
+
+        assertEquals(PARTICIPANTS, fanoutService.processPending());
+        assertEquals(0, fanoutService.processPending());
+
+        assertNotifiedOnce(userIds);
+        Notification notification = notificationRepository
+                .findByUserUserIdOrderByCreatedAtDesc(userIds.get(3)).get(0);
+        assertEquals("Event 'Gala' has been cancelled. Reason: Venue flooded", notification.getMessage());
+        assertEquals(NotificationType.EVENT_UPDATE, notification.getType());
+        assertEquals("/events/" + eventId, notification.getLinkUrl());
+        assertFalse(notification.getIsRead());
+        verify(gamificationService, times(PARTICIPANTS)).sendDashboardUpdate(anyLong());
+
+        NotificationFanoutJob job = jobRepository.findAll().get(0);
+        assertNotNull(job.getCompletedAt());
+        assertEquals(PARTICIPANTS, job.getNotifiedCount());
+    }
+
+    @Test
+    void interruptedJobResumesAfterItsLastCommittedChunk() {
+        NotificationFanoutJob job = fanoutService.enqueueForEventParticipants(eventId, "Cancelled",
+                NotificationType.EVENT_UPDATE, "/events/" + eventId);
+        // The worker died right after committing the first chunk of ten
+        List<Long> firstChunk = userIds.subList(0, 10);
+        insertNotifications(firstChunk);
+        job.setLastUserId(firstChunk.get(9));
+        job.setNotifiedCount(10);
+        jobRepository.save(job);
+
+        assertEquals(PARTICIPANTS - 10, fanoutService.processPending());
+
+        assertNotifiedOnce(userIds);
+        assertEquals(PARTICIPANTS, jobRepository.findById(job.getJobId()).orElseThrow().getNotifiedCount());
+        verify(gamificationService, never()).sendDashboardUpdate(firstChunk.get(0));
+    }
+
+    private void assertNotifiedOnce(List<Long> expected) {
+        for (Long userId : expected) {
+            assertEquals(1, notificationRepository.findByUserUserIdOrderByCreatedAtDesc(userId).size());
+        }
+        assertEquals(expected.size(), notificationRepository.count());
+    }
+
+    private void insertNotifications(List<Long> recipients) {
+        List<Notification> notifications = new ArrayList<>();
+        for (Long userId : recipients) {
+            Notification notification = new Notification();
+            notification.setUser(userRepository.findById(userId).orElseThrow());
+            notification.setMessage("Cancelled");
+            notification.setType(NotificationType.EVENT_UPDATE);
+            notifications.add(notification);
+        }
+        notificationRepository.saveAll(notifications);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.unihub.service;
+
+import com.example.unihub.config.PointsRollupBackfill;
+import com.example.unihub.dto.response.PointsDailyRollupResponse;
+import com.example.unihub.dto.response.PointsHistoryEntryResponse;
+import com.example.unihub.dto.response.PointsSeriesPointResponse;
+import com.example.unihub.enums.UserRole;
+import com.example.unihub.model.PointsDailyRollup;
+import com.example.unihub.model.PointsLog;
+import com.example.unihub.model.User;
+import com.example.unihub.repository.PointsDailyRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({PointsHistoryService.class, PointsRollupBackfill.class})
+class PointsHistoryServiceTest {
+
+    @Autowired
+    private PointsHistoryService pointsHistoryService;
+
+    @Autowired
+    private PointsRollupBackfill backfill;
+
+    @Autowired
+    private PointsDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        alice = persistUser("Alice", "alice@history.test");
+        bob = persistUser("Bob", "bob@history.test");
+    }
+
+    @Test
+    void recordKeepsOneRollupPerUserDayAndSourceType() {
+        pointsHistoryService.record(persistLog(alice, "BLOG", 30));
+        pointsHistoryService.record(persistLog(alice, "BLOG", 10));
+        pointsHistoryService.record(persistLog(alice, "EVENT_LEAVE", -5));
+        pointsHistoryService.record(persistLog(bob, "BLOG", 7));
+
+        LocalDate today = LocalDate.now();
+        PointsDailyRollup blog = rollupRepository.findById(
+                new PointsDailyRollup.RollupId(alice.getUserId(), today, "BLOG")).orElseThrow();
+        assertEquals(40, blog.getPoints());
+        assertEquals(2, blog.getEntryCount());
+        assertEquals(35L, rollupRepository.sumPointsByUserId(alice.getUserId()));
+
+        Slice<PointsDailyRollupResponse> daily = pointsHistoryService.getDailyRollups(alice.getUserId(), today.minusDays(7), today, 0, 10);
+        assertEquals(List.of("BLOG", "EVENT_LEAVE"), daily.map(PointsDailyRollupResponse::getSourceType).getContent());
+    }
+
+    @Test
+    void seriesCoversEveryDayAndSplitsBySourceType() {
+        pointsHistoryService.record(persistLog(alice, "BLOG", 30));
+        pointsHistoryService.record(persistLog(alice, "EVENT_LEAVE", -5));
+        pointsHistoryService.record(persistLog(bob, "BLOG", 7));
+
+        List<PointsSeriesPointResponse> mine = pointsHistoryService.getSeries(alice.getUserId(), 7);
+        assertEquals(7, mine.size());
+        assertEquals(LocalDate.now().minusDays(6), mine.get(0).getDate());
+        assertEquals(0, mine.get(0).getPoints());
+        PointsSeriesPointResponse today = mine.get(6);
+        assertEquals(25, today.getPoints());
+        assertEquals(Map.of("BLOG", 30, "EVENT_LEAVE", -5), today.getBySourceType());
+
+        assertEquals(37, pointsHistoryService.getSeries(null, 1).get(0).getBySourceType().get("BLOG"));
+    }
+
+    @Test
+    void historyPagesNewestFirstAndFiltersBySourceType() {
+        for (int i = 1; i <= 5; i++) {
+            persistLog(alice, i % 2 == 0 ? "EVENT_PARTICIPATION" : "BLOG", i);
+        }
+
+        Slice<PointsHistoryEntryResponse> first = pointsHistoryService.getHistory(alice.getUserId(), null, 0, 2);
+        assertEquals(List.of(5, 4), first.map(PointsHistoryEntryResponse::getPoints).getContent());
+        assertTrue(first.hasNext());
+        Slice<PointsHistoryEntryResponse> last = pointsHistoryService.getHistory(alice.getUserId(), null, 2, 2);
+        assertEquals(List.of(1), last.map(PointsHistoryEntryResponse::getPoints).getContent());
+        assertFalse(last.hasNext());
+
+        assertEquals(List.of(5, 3, 1), pointsHistoryService.getHistory(alice.getUserId(), "blog", 0, 10)
+                .map(PointsHistoryEntryResponse::getPoints).getContent());
+    }
+
+    @Test
+    void backfillRollsUpOlderEntriesOnce() {
+        persistLog(alice, "BLOG", 30);
+        persistLog(alice, "BLOG", 10);
+
+        backfill.run();
+        backfill.run();
+
+        PointsDailyRollup blog = rollupRepository.findById(
+                new PointsDailyRollup.RollupId(alice.getUserId(), LocalDate.now(), "BLOG")).orElseThrow();
+        assertEquals(40, blog.getPoints());
+        assertEquals(2, blog.getEntryCount());
+    }
+
+    private PointsLog persistLog(User user, String sourceType, int points) {
+        PointsLog pointsLog = new PointsLog();
+        pointsLog.setUser(user);
+        pointsLog.setSourceType(sourceType);
+        pointsLog.setSourceId(1L);
+        pointsLog.setPoints(points);
+        pointsLog.setDescription(sourceType);
+        return entityManager.persistAndFlush(pointsLog);
+    }
+
+    private User persistUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        user.setPasswordHash("hash");
+        user.setRole(UserRole.STUDENT);
+        return entityManager.persistAndFlush(user);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.unihub.service;
+
+import com.example.unihub.dto.TypingIndicatorMessage;
+import com.example.unihub.dto.UserPresenceResponse;
+import com.example.unihub.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PresenceServiceTest {
+
+    private static final String TOPIC = "/topic/conversation/10/typing";
+
+    private ChatMembershipCache membershipCache;
+    private WebSocketEventPublisher eventPublisher;
+    private PresenceService presenceService;
+
+    @BeforeEach
+    void setUp() {
+        membershipCache = mock(ChatMembershipCache.class);
+        eventPublisher = mock(WebSocketEventPublisher.class);
+        when(membershipCache.isMember(10L, 1L)).thenReturn(true);
+        presenceService = new PresenceService(mock(UserRepository.class), membershipCache, eventPublisher, 2000, 6000);
+        presenceService.connect("s1", 1L, "Alice", 0);
+    }
+
+    @Test
+    void typingBurstEmitsAtMostOncePerInterval() {
+        for (long t = 0; t < 5000; t += 100) {
+            presenceService.handleTyping("s1", 10L, true, 1000 + t);
+        }
+
+        // Frames at 1000, 3000 and 5000 are emitted; the other 47 are suppressed
+        ArgumentCaptor<Object> payloads = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(3)).publishCoalesced(eq(TOPIC), eq(1L), payloads.capture());
+        TypingIndicatorMessage message = (TypingIndicatorMessage) payloads.getValue();
+        assertEquals(1L, message.getUserId());
+        assertEquals("Alice", message.getUserName());
+        assertTrue(message.getIsTyping());
+        assertEquals(47L, presenceService.getMetrics().get("typing_suppressed"));
+        // Membership is checked once per burst, not per frame
+        verify(membershipCache, times(1)).isMember(10L, 1L);
+    }
+
+    @Test
+    void typingFromUnknownSessionOrNonMemberIsRejected() {
+        presenceService.handleTyping("anonymous", 10L, true, 1000);
+        presenceService.handleTyping("s1", 99L, true, 1000);
+
+        verifyNoInteractions(eventPublisher);
+        assertEquals(2L, presenceService.getMetrics().get("typing_rejected"));
+    }
+
+    @Test
+    void staleTypingStateExpiresWithStopEvent() {
+        presenceService.handleTyping("s1", 10L, true, 1000);
+        presenceService.expireStaleTyping(5000);
+        assertEquals(1, presenceService.getMetrics().get("typing_states"));
+
+        presenceService.expireStaleTyping(7000);
+
+        ArgumentCaptor<Object> payloads = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(2)).publishCoalesced(eq(TOPIC), eq(1L), payloads.capture());
+        assertFalse(((TypingIndicatorMessage) payloads.getValue()).getIsTyping());
+        assertEquals(0, presenceService.getMetrics().get("typing_states"));
+    }
+
+    @Test
+    void disconnectingLastSessionGoesOfflineAndStopsTyping() {
+        presenceService.connect("s2", 1L, "Alice", 500);
+        presenceService.handleTyping("s1", 10L, true, 1000);
+
+        presenceService.disconnect("s1", 2000);
+        assertTrue(presenceService.isOnline(1L));
+        verify(eventPublisher, times(1)).publishCoalesced(anyString(), any(), any());
+
+        presenceService.disconnect("s2", 3000);
+        assertFalse(presenceService.isOnline(1L));
+        verify(eventPublisher, times(2)).publishCoalesced(eq(TOPIC), eq(1L), any());
+
+        List<UserPresenceResponse> presence = presenceService.getPresence(List.of(1L, 2L));
+        assertFalse(presence.get(0).getOnline());
+        assertNotNull(presence.get(0).getLastSeen());
+        assertFalse(presence.get(1).getOnline());
+        assertNull(presence.get(1).getLastSeen());
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.unihub.service;
+
+import com.example.unihub.config.ReportCountBackfill;
+import com.example.unihub.enums.BlogStatus;
+import com.example.unihub.enums.EventStatus;
+import com.example.unihub.enums.UserRole;
+import com.example.unihub.model.Blog;
+import com.example.unihub.model.Event;
+import com.example.unihub.model.Notification;
+import com.example.unihub.model.User;
+import com.example.unihub.repository.BlogRepository;
+import com.example.unihub.repository.EventRepository;
+import com.example.unihub.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({ReportService.class, ReportCountBackfill.class})
+class ReportServiceTest {
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private ReportCountBackfill backfill;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockitoBean
+    private GamificationOutboxService gamificationOutboxService;
+
+    private User author;
+    private Event event;
+    private Blog blog;
+
+    @BeforeEach
+    void setUp() {
+        author = persistUser("Author");
+
+        event = new Event();
+        event.setTitle("Hackathon");
+        event.setStatus(EventStatus.APPROVED);
+        event.setCreator(author);
+        event.setStartDate(LocalDateTime.now().plusDays(1));
+        event.setEndDate(LocalDateTime.now().plusDays(2));
+        entityManager.persist(event);
+
+        blog = new Blog();
+        blog.setTitle("Internships");
+        blog.setContent("Apply now");
+        blog.setStatus(BlogStatus.APPROVED);
+        blog.setAuthor(author);
+        entityManager.persist(blog);
+        entityManager.flush();
+    }
+
+    @Test
+    void reportsIncrementTheStoredCounters() {
+        reportService.reportEvent(event.getEventId(), persistUser("First").getUserId(), "Spam");
+        reportService.reportEvent(event.getEventId(), persistUser("Second").getUserId(), "Spam");
+        reportService.reportBlog(blog.getBlogId(), persistUser("Third").getUserId(), "Offensive");
+
+        // A stale copy saved afterwards must not write its counter back
+        event.setTitle("Renamed");
+        eventRepository.saveAndFlush(event);
+        entityManager.clear();
+
+        assertEquals(2L, eventRepository.findById(event.getEventId()).orElseThrow().getReportCount());
+        assertEquals(1L, blogRepository.findById(blog.getBlogId()).orElseThrow().getReportCount());
+    }
+
+    @Test
+    void backfillCountsReportsForRowsWithoutACounter() {
+        reportService.reportEvent(event.getEventId(), persistUser("First").getUserId(), "Spam");
+        jdbcTemplate.update("UPDATE events SET report_count = NULL");
+        jdbcTemplate.update("UPDATE blogs SET report_count = NULL");
+
+        backfill.run();
+        entityManager.clear();
+
+        assertEquals(1L, eventRepository.findById(event.getEventId()).orElseThrow().getReportCount());
+        assertEquals(0L, blogRepository.findById(blog.getBlogId()).orElseThrow().getReportCount());
+    }
+
+    @Test
+    void blogAndEventReportsUseSeparateSourceTypes() {
+        User reporter = persistUser("Reporter");
+        Long blogReportId = reportService.reportBlog(blog.getBlogId(), reporter.getUserId(), "Spam").getReportId();
+        Long eventReportId = reportService.reportEvent(event.getEventId(), reporter.getUserId(), "Spam").getReportId();
+        when(gamificationOutboxService.award(anyLong(), anyInt(), anyString(), anyLong(), anyString())).thenReturn(true);
+
+        reportService.reviewBlogReport(blogReportId);
+        reportService.reviewEventReport(eventReportId);
+
+        verify(gamificationOutboxService).award(eq(reporter.getUserId()), eq(15), eq("BLOG_REPORT_RESOLVED"), eq(blogReportId), anyString());
+        verify(gamificationOutboxService).award(eq(reporter.getUserId()), eq(15), eq("EVENT_REPORT_RESOLVED"), eq(eventReportId), anyString());
+    }
+
+    @Test
+    void notificationOnlyMentionsPointsThatWereRecorded() {
+        User reporter = persistUser("Reporter");
+        Long reportId = reportService.reportBlog(blog.getBlogId(), reporter.getUserId(), "Spam").getReportId();
+        // The outbox already holds a change for this source, so nothing new is recorded
+        when(gamificationOutboxService.deduct(anyLong(), anyInt(), anyString(), anyLong(), anyString())).thenReturn(false);
+
+        reportService.dismissBlogReport(reportId);
+
+        Notification notification = notificationRepository.findByUserUserIdOrderByCreatedAtDesc(reporter.getUserId()).get(0);
+        assertFalse(notification.getMessage().contains("Penalty"));
+    }
+
+    private User persistUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name.toLowerCase() + "@reports.test");
+        user.setPasswordHash("hash");
+        user.setRole(UserRole.STUDENT);
+        return entityManager.persistAndFlush(user);
+    }
+}
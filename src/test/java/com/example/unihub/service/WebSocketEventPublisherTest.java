@@ -0,0 +1,105 @@
+package com.example.unihub.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class WebSocketEventPublisherTest {
+
+    private SimpMessagingTemplate messagingTemplate;
+    private WebSocketEventPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        // Not started: tests drive dispatch directly
+        publisher = new WebSocketEventPublisher(messagingTemplate, 100, 50, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void coalescedEventsOnlyDeliverLatestPayloadPerKey() {
+        publisher.dispatch(List.of(
+                event("/topic/chat-unread/1", 10L, 1),
+                event("/topic/chat-unread/1", 10L, 2),
+                event("/topic/chat-unread/1", 11L, 7),
+                event("/topic/chat-unread/1", 10L, 3)
+        ));
+
+        InOrder inOrder = inOrder(messagingTemplate);
+        inOrder.verify(messagingTemplate).convertAndSend("/topic/chat-unread/1", (Object) 7);
+        inOrder.verify(messagingTemplate).convertAndSend("/topic/chat-unread/1", (Object) 3);
+        verifyNoMoreInteractions(messagingTemplate);
+        assertEquals(2L, publisher.getMetrics().get("coalesced"));
+    }
+
+    @Test
+    void plainEventsAreAllDeliveredInOrder() {
+        publisher.dispatch(List.of(
+                event("/topic/conversation/1", null, "a"),
+                event("/topic/conversation/1", null, "b")
+        ));
+
+        InOrder inOrder = inOrder(messagingTemplate);
+        inOrder.verify(messagingTemplate).convertAndSend("/topic/conversation/1", (Object) "a");
+        inOrder.verify(messagingTemplate).convertAndSend("/topic/conversation/1", (Object) "b");
+        assertEquals(2L, publisher.getMetrics().get("published"));
+    }
+
+    @Test
+    void eventsInsideTransactionAreQueuedOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        publisher.publish("/topic/conversation/1", "payload");
+
+        assertEquals(0, publisher.getQueueDepth());
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        assertEquals(1, publisher.getQueueDepth());
+    }
+
+    @Test
+    void eventsInsideRolledBackTransactionAreNeverQueued() {
+        TransactionSynchronizationManager.initSynchronization();
+        publisher.publish("/topic/conversation/1", "payload");
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        assertEquals(0, publisher.getQueueDepth());
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+    }
+
+    @Test
+    void fullQueueDropsAndCountsEvents() {
+        WebSocketEventPublisher tiny = new WebSocketEventPublisher(messagingTemplate, 1, 50, 0);
+        tiny.publish("/topic/a", "first");
+        tiny.publish("/topic/a", "second");
+
+        assertEquals(1, tiny.getQueueDepth());
+        assertEquals(1L, tiny.getMetrics().get("dropped"));
+    }
+
+    private WebSocketEventPublisher.OutboundEvent event(String destination, Object key, Object payload) {
+        WebSocketEventPublisher.OutboundEvent event = new WebSocketEventPublisher.OutboundEvent(destination, key, payload);
+        event.enqueuedAt = System.nanoTime();
+        return event;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.unihub.service;
+
+import com.example.unihub.enums.LeaderboardWindow;
+import com.example.unihub.enums.UserRole;
+import com.example.unihub.model.User;
+import com.example.unihub.repository.PointsDailyRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.leaderboard.windows.refresh-interval-ms=3600000"
+})
+@Import({WindowedLeaderboard.class, LeaderboardIndex.class})
+class WindowedLeaderboardTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 1);
+
+    @Autowired
+    private WindowedLeaderboard leaderboard;
+
+    @Autowired
+    private LeaderboardIndex leaderboardIndex;
+
+    @Autowired
+    private PointsDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final Set<TransactionSynchronization> applied = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    @BeforeEach
+    void setUp() {
+        leaderboard.load(DAY);
+    }
+
+    @Test
+    void windowsOnlyCountPointsEarnedWithinThem() {
+        leaderboard.record(1L, 50, DAY.minusDays(10).atTime(12, 0));
+        leaderboard.record(2L, 20, DAY.atTime(9, 0));
+        leaderboard.record(1L, 5, DAY.minusDays(2).atTime(9, 0));
+        runAfterCommitActions();
+
+        assertEquals(List.of(2L, 1L), userIds(leaderboard.top(LeaderboardWindow.WEEK, null, 0, 10)));
+        assertEquals(List.of(1L, 2L), userIds(leaderboard.top(LeaderboardWindow.MONTH, null, 0, 10)));
+        assertEquals(5, leaderboard.pointsOf(1L, LeaderboardWindow.WEEK));
+        assertEquals(55, leaderboard.pointsOf(1L, LeaderboardWindow.MONTH));
+        assertEquals(2, leaderboard.rankOf(1L, LeaderboardWindow.WEEK, null));
+    }
+
+    @Test
+    void rollingOverSubtractsDaysThatLeaveEachWindow() {
+        leaderboard.record(1L, 50, DAY.minusDays(10).atTime(12, 0));
+        leaderboard.record(2L, 20, DAY.atTime(9, 0));
+        runAfterCommitActions();
+        String before = leaderboard.getVersionTag();
+
+        // An entry for a later day moves the windows forward
+        leaderboard.record(3L, 1, DAY.plusDays(7).atTime(9, 0));
+        runAfterCommitActions();
+        assertEquals(List.of(3L), userIds(leaderboard.top(LeaderboardWindow.WEEK, null, 0, 10)));
+        assertEquals(List.of(1L, 2L, 3L), userIds(leaderboard.top(LeaderboardWindow.MONTH, null, 0, 10)));
+        assertNotEquals(before, leaderboard.getVersionTag());
+
+        leaderboard.record(3L, 1, DAY.plusDays(20).atTime(9, 0));
+        runAfterCommitActions();
+        assertEquals(List.of(2L, 3L), userIds(leaderboard.top(LeaderboardWindow.MONTH, null, 0, 10)));
+        assertEquals(0, leaderboard.pointsOf(1L, LeaderboardWindow.MONTH));
+    }
+
+    @Test
+    void usersWithoutPositiveTotalsAreNotRanked() {
+        leaderboard.record(1L, 10, DAY.atTime(9, 0));
+        leaderboard.record(1L, -30, DAY.atTime(10, 0));
+        runAfterCommitActions();
+
+        assertEquals(-1, leaderboard.rankOf(1L, LeaderboardWindow.WEEK, null));
+        assertEquals(-20, leaderboard.pointsOf(1L, LeaderboardWindow.WEEK));
+    }
+
+    @Test
+    void everyInstanceRanksPointsAppliedByAnyInstance() {
+        LocalDate today = LocalDate.now();
+        User alice = persistUser("Alice", "alice@windows.test");
+        User bob = persistUser("Bob", "bob@windows.test");
+        // Rollups written by the transactions that applied the points, on whichever instance ran them
+        rollupRepository.insertFirst(alice.getUserId(), today.minusDays(1), "BLOG", 40);
+        rollupRepository.insertFirst(bob.getUserId(), today, "BLOG", 25);
+        rollupRepository.insertFirst(bob.getUserId(), today, "EVENT_LEAVE", -5);
+
+        WindowedLeaderboard other = new WindowedLeaderboard(rollupRepository, leaderboardIndex);
+        leaderboard.load(today);
+        other.load(today);
+
+        for (WindowedLeaderboard instance : List.of(leaderboard, other)) {
+            assertEquals(40, instance.pointsOf(alice.getUserId(), LeaderboardWindow.WEEK));
+            assertEquals(20, instance.pointsOf(bob.getUserId(), LeaderboardWindow.WEEK));
+            assertEquals(List.of(alice.getUserId(), bob.getUserId()),
+                    userIds(instance.top(LeaderboardWindow.WEEK, null, 0, 10)));
+        }
+
+        // A local award shows up at once and is not counted twice once the refresh reads its rollup
+        rollupRepository.increment(bob.getUserId(), today, "BLOG", 30);
+        leaderboard.record(bob.getUserId(), 30, today.atTime(9, 0));
+        runAfterCommitActions();
+        assertEquals(50, leaderboard.pointsOf(bob.getUserId(), LeaderboardWindow.WEEK));
+        leaderboard.load(today);
+        other.load(today);
+        assertEquals(50, leaderboard.pointsOf(bob.getUserId(), LeaderboardWindow.WEEK));
+        assertEquals(50, other.pointsOf(bob.getUserId(), LeaderboardWindow.WEEK));
+    }
+
+    // The test transaction never commits, so run the updates it queued by hand, once each
+    private void runAfterCommitActions() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (applied.add(synchronization)) {
+                synchronization.afterCommit();
+            }
+        }
+    }
+
+    private List<Long> userIds(List<LeaderboardIndex.RankedUser> ranked) {
+        return ranked.stream().map(LeaderboardIndex.RankedUser::userId).toList();
+    }
+
+    private User persistUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        user.setPasswordHash("hash");
+        user.setRole(UserRole.STUDENT);
+        return entityManager.persistAndFlush(user);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.unihub.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsStandingsAndWatermarks() throws IOException {
+        Path path = dir.resolve("nested/leaderboard.snapshot");
+        List<Object[]> standings = List.of(new Object[]{1L, 7L, 120}, new Object[]{2L, null, 0});
+        new LeaderboardSnapshot(42L, 9L, 1_700_000_000_000L, standings).write(path);
+
+        LeaderboardSnapshot read = LeaderboardSnapshot.read(path);
+        assertEquals(42L, read.getPointsLogWatermark());
+        assertEquals(9L, read.getMaxUserId());
+        assertEquals(1_700_000_000_000L, read.getTakenAtMillis());
+        assertEquals(2, read.getStandings().size());
+        assertArrayEquals(new Object[]{1L, 7L, 120}, read.getStandings().get(0));
+        assertArrayEquals(new Object[]{2L, null, 0}, read.getStandings().get(1));
+    }
+
+    @Test
+    void rejectsCorruptedOrTruncatedFiles() throws IOException {
+        Path path = dir.resolve("leaderboard.snapshot");
+        new LeaderboardSnapshot(1L, 1L, 0L, List.<Object[]>of(new Object[]{1L, 2L, 30})).write(path);
+        byte[] bytes = Files.readAllBytes(path);
+
+        byte[] flipped = bytes.clone();
+        flipped[40] ^= 0x01;
+        Files.write(path, flipped);
+        assertThrows(IOException.class, () -> LeaderboardSnapshot.read(path));
+
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 3));
+        assertThrows(IOException.class, () -> LeaderboardSnapshot.read(path));
+
+        Files.writeString(path, "not a snapshot at all");
+        assertThrows(IOException.class, () -> LeaderboardSnapshot.read(path));
+    }
+}
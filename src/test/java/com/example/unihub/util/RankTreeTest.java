@@ -0,0 +1,61 @@
+package com.example.unihub.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankTreeTest {
+
+    private static final Comparator<long[]> ORDER =
+            Comparator.<long[]>comparingLong(e -> -e[1]).thenComparingLong(e -> e[0]);
+
+    @Test
+    void ordersByScoreDescendingThenIdAscending() {
+        RankTree tree = new RankTree();
+        tree.insert(3, 10);
+        tree.insert(1, 50);
+        tree.insert(2, 10);
+
+        assertEquals(1, tree.idAt(0));
+        assertEquals(2, tree.idAt(1));
+        assertEquals(3, tree.idAt(2));
+        assertEquals(1, tree.rankOf(2, 10));
+        assertEquals(-1, tree.rankOf(2, 11));
+    }
+
+    @Test
+    void matchesSortedListUnderRandomUpdates() {
+        Random random = new Random(42);
+        RankTree tree = new RankTree();
+        Map<Long, Long> scores = new HashMap<>();
+
+        for (int step = 0; step < 20_000; step++) {
+            long id = random.nextInt(500);
+            Long old = scores.get(id);
+            if (old != null) {
+                assertTrue(tree.remove(id, old));
+            }
+            if (random.nextInt(10) == 0) {
+                scores.remove(id);
+            } else {
+                long score = random.nextInt(200);
+                scores.put(id, score);
+                tree.insert(id, score);
+            }
+        }
+
+        List<long[]> expected = new ArrayList<>();
+        scores.forEach((id, score) -> expected.add(new long[]{id, score}));
+        expected.sort(ORDER);
+
+        assertEquals(expected.size(), tree.size());
+        for (int rank = 0; rank < expected.size(); rank++) {
+            long[] entry = expected.get(rank);
+            assertEquals(entry[0], tree.idAt(rank));
+            assertEquals(entry[1], tree.scoreAt(rank));
+            assertEquals(rank, tree.rankOf(entry[0], entry[1]));
+        }
+    }
+}